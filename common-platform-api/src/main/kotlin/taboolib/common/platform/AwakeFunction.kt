@@ -17,6 +17,10 @@ class AwakeFunction(private val lifeCycle: LifeCycle) : ClassVisitor(0) {
         }
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(Awake::class.java)
+    }
+
     override fun getLifeCycle(): LifeCycle {
         return lifeCycle
     }
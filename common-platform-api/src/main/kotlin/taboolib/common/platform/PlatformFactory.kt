@@ -3,9 +3,12 @@ package taboolib.common.platform
 import taboolib.common.LifeCycle
 import taboolib.common.PrimitiveIO
 import taboolib.common.PrimitiveSettings
+import taboolib.common.TabooLib
 import taboolib.common.env.RuntimeEnv
+import taboolib.common.inject.ClassIndex
 import taboolib.common.inject.ClassVisitor
 import taboolib.common.inject.VisitorHandler
+import taboolib.common.io.extraLoadedClasses
 import taboolib.common.io.getInstance
 import taboolib.common.io.runningClasses
 import taboolib.common.io.runningClassesWithoutLibrary
@@ -42,13 +45,18 @@ object PlatformFactory {
                 PrimitiveIO.println("${System.currentTimeMillis() - time}ms")
             }
 
+            // 优先使用构建时生成的类索引，仅加载带有相关注解的类
+            val index = ClassIndex.current()
+            val runtimeClasses = index?.getClasses(ClassIndex.FLAG_RUNTIME_ENV.toInt(), TabooLib::class.java.classLoader)?.plus(extraLoadedClasses.values) ?: runningClassesWithoutLibrary
+            val awakeClasses = index?.getClasses(ClassIndex.FLAG_AWAKE.toInt() or ClassIndex.FLAG_PLATFORM_IMPLEMENTATION.toInt(), TabooLib::class.java.classLoader)?.plus(extraLoadedClasses.values) ?: runningClassesWithoutLibrary
+
             // 加载运行环境
-            runningClassesWithoutLibrary.forEach {
+            runtimeClasses.forEach {
                 runCatching { RuntimeEnv.ENV.inject(it) }.exceptionOrNull()?.takeIf { it !is NoClassDefFoundError }?.printStackTrace()
             }
 
             // 加载接口
-            runningClassesWithoutLibrary.parallelStream().forEach {
+            awakeClasses.parallelStream().forEach {
                 if (it.isAnnotationPresent(Awake::class.java) && Platform.check(it)) {
                     val interfaces = it.interfaces
                     val instance = it.getInstance(true)?.get() ?: return@forEach
@@ -14,6 +14,10 @@ class ScheduleLoader : ClassVisitor(0) {
         return LifeCycle.ACTIVE
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(Schedule::class.java)
+    }
+
     override fun visit(method: ClassMethod, clazz: Class<*>, instance: Supplier<*>?) {
         if (method.isAnnotationPresent(Schedule::class.java)) {
             val schedule = method.getAnnotation(Schedule::class.java)
@@ -101,6 +101,10 @@ class SimpleCommandRegister : ClassVisitor(0) {
         return null
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(CommandBody::class.java)
+    }
+
     override fun visit(field: ClassField, clazz: Class<*>, instance: Supplier<*>?) {
         if (field.isAnnotationPresent(CommandBody::class.java) && field.fieldType == SimpleCommandMain::class.java) {
             main[clazz.name] = field.get(instance?.get()) as SimpleCommandMain
@@ -17,6 +17,10 @@ import java.util.function.Supplier
 @Awake
 class EventBus : ClassVisitor(0) {
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(SubscribeEvent::class.java)
+    }
+
     @Suppress("UNCHECKED_CAST")
     override fun visit(method: ClassMethod, clazz: Class<*>, instance: Supplier<*>?) {
         if (method.isAnnotationPresent(SubscribeEvent::class.java) && method.parameter.size == 1) {
@@ -1,3 +1,13 @@
 dependencies {
     compileOnly(project(":common"))
+    // 测试
+    testImplementation(kotlin("stdlib"))
+    testImplementation(project(":common"))
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.1")
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
 }
\ No newline at end of file
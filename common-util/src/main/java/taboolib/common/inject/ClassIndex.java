@@ -0,0 +1,460 @@
+package taboolib.common.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import taboolib.common.LifeCycle;
+import taboolib.common.TabooLib;
+
+import java.io.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * TabooLib
+ * taboolib.common.inject.ClassIndex
+ * <p>
+ * 构建时生成的类索引，记录所有可被 ClassVisitor 访问的类及其注解信息。
+ * 运行时由 {@link VisitorHandler} 读取，避免启动时遍历整个插件文件并加载每一个类。
+ * <p>
+ * 文件格式（大端序）：
+ * <pre>
+ * int    魔数 0x54424958
+ * short  版本
+ * int    条目数量
+ * 条目：
+ *   UTF  类名
+ *   byte 标记（{@link #FLAG_INJECT} 等）
+ *   byte SkipTo 生命周期序号（无则为 -1）
+ * </pre>
+ */
+public class ClassIndex {
+
+    /**
+     * 索引文件在插件中的位置
+     */
+    public static final String PATH = "META-INF/taboolib/classes.index";
+
+    public static final int MAGIC = 0x54424958;
+
+    public static final short VERSION = 2;
+
+    /**
+     * 类标有 @Inject
+     */
+    public static final byte FLAG_INJECT = 1;
+
+    /**
+     * 类标有 @Ghost
+     */
+    public static final byte FLAG_GHOST = 1 << 1;
+
+    /**
+     * 类标有 @SkipTo
+     */
+    public static final byte FLAG_SKIP_TO = 1 << 2;
+
+    /**
+     * 类标有 @PlatformSide
+     */
+    public static final byte FLAG_PLATFORM_SIDE = 1 << 3;
+
+    /**
+     * 类标有 @Awake
+     */
+    public static final byte FLAG_AWAKE = 1 << 4;
+
+    /**
+     * 类标有 @PlatformImplementation
+     */
+    public static final byte FLAG_PLATFORM_IMPLEMENTATION = 1 << 5;
+
+    /**
+     * 类标有 @RuntimeDependency、@RuntimeResource 等运行环境注解
+     */
+    public static final byte FLAG_RUNTIME_ENV = 1 << 6;
+
+    private static volatile ClassIndex current;
+    private static volatile boolean currentLoaded;
+
+    private final List<Entry> entries;
+
+    public ClassIndex(@NotNull List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * 获取所有条目
+     */
+    @NotNull
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * 获取具备任意一个指定标记的类（不初始化），无法加载的类将被忽略
+     *
+     * @param mask 标记，例如 FLAG_AWAKE | FLAG_RUNTIME_ENV
+     */
+    @NotNull
+    public List<Class<?>> getClasses(int mask, @NotNull ClassLoader classLoader) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Entry entry : entries) {
+            if ((entry.flags & mask) == 0) {
+                continue;
+            }
+            try {
+                classes.add(Class.forName(entry.name, false, classLoader));
+            } catch (Throwable ignored) {
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 写入索引
+     */
+    public void write(@NotNull OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+            out.writeUTF(entry.name);
+            out.writeByte(entry.flags);
+            out.writeByte(entry.skipTo == null ? -1 : entry.skipTo.ordinal());
+        }
+        out.flush();
+    }
+
+    /**
+     * 读取索引，若格式或版本不符则返回 null
+     */
+    @Nullable
+    public static ClassIndex read(@NotNull InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            return null;
+        }
+        int size = in.readInt();
+        List<Entry> entries = new ArrayList<>(size);
+        LifeCycle[] lifeCycles = LifeCycle.values();
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            byte flags = in.readByte();
+            byte skipTo = in.readByte();
+            entries.add(new Entry(name, flags, skipTo >= 0 && skipTo < lifeCycles.length ? lifeCycles[skipTo] : null));
+        }
+        return new ClassIndex(entries);
+    }
+
+    /**
+     * 获取当前插件的索引（只读取一次），不存在则返回 null
+     */
+    @Nullable
+    public static ClassIndex current() {
+        if (!currentLoaded) {
+            synchronized (ClassIndex.class) {
+                if (!currentLoaded) {
+                    current = load(TabooLib.class.getClassLoader(), TabooLib.class.getProtectionDomain().getCodeSource().getLocation());
+                    currentLoaded = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 从指定类加载器中读取当前插件的索引，不存在则返回 null
+     */
+    @Nullable
+    public static ClassIndex load(@NotNull ClassLoader classLoader, @NotNull URL source) {
+        try {
+            Enumeration<URL> resources = classLoader.getResources(PATH);
+            String sourcePath = source.toString();
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                // 只读取当前插件中的索引
+                if (url.toString().contains(sourcePath)) {
+                    try (InputStream in = url.openStream()) {
+                        return read(in);
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * 在构建时根据插件文件生成索引
+     *
+     * @param jarFile      插件文件（需在重定向后生成）
+     * @param groupId      组名，例如：com.example.plugin
+     * @param taboolibPath 重定向后的 taboolib 路径，例如：com.example.plugin.taboolib
+     */
+    @NotNull
+    public static ClassIndex generate(@NotNull File jarFile, @NotNull String groupId, @NotNull String taboolibPath) throws IOException {
+        String taboolibInternal = taboolibPath.replace('.', '/');
+        String inject = "L" + taboolibInternal + "/common/Inject;";
+        String ghost = "L" + taboolibInternal + "/common/platform/Ghost;";
+        String skipTo = "L" + taboolibInternal + "/common/platform/SkipTo;";
+        String platformSide = "L" + taboolibInternal + "/common/platform/PlatformSide;";
+        String awake = "L" + taboolibInternal + "/common/platform/Awake;";
+        String platformImplementation = "L" + taboolibInternal + "/common/platform/PlatformImplementation;";
+        String[] runtimeEnv = {
+                "L" + taboolibInternal + "/common/env/RuntimeDependency;",
+                "L" + taboolibInternal + "/common/env/RuntimeDependencies;",
+                "L" + taboolibInternal + "/common/env/RuntimeResource;",
+                "L" + taboolibInternal + "/common/env/RuntimeResources;"
+        };
+        List<Entry> entries = new ArrayList<>();
+        try (JarFile jar = new JarFile(jarFile)) {
+            Enumeration<JarEntry> enumeration = jar.entries();
+            while (enumeration.hasMoreElements()) {
+                JarEntry jarEntry = enumeration.nextElement();
+                if (jarEntry.isDirectory() || !jarEntry.getName().endsWith(".class")) {
+                    continue;
+                }
+                String className = jarEntry.getName().replace('/', '.').substring(0, jarEntry.getName().length() - 6);
+                // 与 VisitorHandler#getClasses 的过滤规则保持一致
+                if (!className.startsWith(groupId) || className.startsWith(groupId + ".library") || className.startsWith(taboolibPath + ".library")) {
+                    continue;
+                }
+                ClassHeader header;
+                try (InputStream in = jar.getInputStream(jarEntry)) {
+                    header = ClassHeader.read(in);
+                } catch (Throwable ex) {
+                    continue;
+                }
+                byte flags = 0;
+                if (header.annotations.contains(inject)) {
+                    flags |= FLAG_INJECT;
+                }
+                if (header.annotations.contains(ghost)) {
+                    flags |= FLAG_GHOST;
+                }
+                if (header.annotations.contains(platformSide)) {
+                    flags |= FLAG_PLATFORM_SIDE;
+                }
+                if (header.annotations.contains(awake)) {
+                    flags |= FLAG_AWAKE;
+                }
+                if (header.annotations.contains(platformImplementation)) {
+                    flags |= FLAG_PLATFORM_IMPLEMENTATION;
+                }
+                for (String annotation : runtimeEnv) {
+                    if (header.annotations.contains(annotation)) {
+                        flags |= FLAG_RUNTIME_ENV;
+                        break;
+                    }
+                }
+                LifeCycle skipToValue = null;
+                if (header.annotations.contains(skipTo)) {
+                    flags |= FLAG_SKIP_TO;
+                    String value = header.enumValues.get(skipTo);
+                    skipToValue = value != null ? LifeCycle.valueOf(value) : LifeCycle.CONST;
+                }
+                // 排除 TabooLib 中与 ClassVisitor 及 PlatformFactory 都无关的类
+                if (className.startsWith(taboolibPath) && (flags & (FLAG_INJECT | FLAG_AWAKE | FLAG_PLATFORM_IMPLEMENTATION | FLAG_RUNTIME_ENV)) == 0) {
+                    continue;
+                }
+                entries.add(new Entry(className, flags, skipToValue));
+            }
+        }
+        return new ClassIndex(entries);
+    }
+
+    /**
+     * 构建工具入口
+     * 用法：ClassIndex &lt;插件文件&gt; &lt;输出文件&gt; &lt;组名&gt; &lt;taboolib 路径&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            throw new IllegalArgumentException("Usage: ClassIndex <jar> <output> <groupId> <taboolibPath>");
+        }
+        ClassIndex index = generate(new File(args[0]), args[2], args[3]);
+        try (FileOutputStream out = new FileOutputStream(args[1])) {
+            index.write(out);
+        }
+    }
+
+    public static class Entry {
+
+        private final String name;
+        private final byte flags;
+        private final LifeCycle skipTo;
+
+        public Entry(@NotNull String name, byte flags, @Nullable LifeCycle skipTo) {
+            this.name = name;
+            this.flags = flags;
+            this.skipTo = skipTo;
+        }
+
+        /**
+         * 类名
+         */
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 是否具备指定标记
+         */
+        public boolean hasFlag(byte flag) {
+            return (flags & flag) != 0;
+        }
+
+        /**
+         * 获取 @SkipTo 的生命周期
+         */
+        @Nullable
+        public LifeCycle getSkipTo() {
+            return skipTo;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "name='" + name + '\'' +
+                    ", flags=" + flags +
+                    ", skipTo=" + skipTo +
+                    '}';
+        }
+    }
+
+    /**
+     * 仅读取类文件中的类注解，不加载类
+     */
+    static class ClassHeader {
+
+        final List<String> annotations = new ArrayList<>();
+        final Map<String, String> enumValues = new HashMap<>();
+
+        static ClassHeader read(InputStream inputStream) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+            ClassHeader header = new ClassHeader();
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file");
+            }
+            in.readUnsignedShort();
+            in.readUnsignedShort();
+            // 常量池
+            int poolSize = in.readUnsignedShort();
+            String[] utf8 = new String[poolSize];
+            for (int i = 1; i < poolSize; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        utf8[i] = in.readUTF();
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 12:
+                    case 17:
+                    case 18:
+                        in.skipBytes(4);
+                        break;
+                    case 5:
+                    case 6:
+                        in.skipBytes(8);
+                        i++;
+                        break;
+                    case 7:
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        in.skipBytes(2);
+                        break;
+                    case 15:
+                        in.skipBytes(3);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+            in.skipBytes(6);
+            in.skipBytes(in.readUnsignedShort() * 2);
+            // 字段与方法
+            for (int n = 0; n < 2; n++) {
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    in.skipBytes(6);
+                    skipAttributes(in);
+                }
+            }
+            // 类属性
+            int attributes = in.readUnsignedShort();
+            for (int i = 0; i < attributes; i++) {
+                String name = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if ("RuntimeVisibleAnnotations".equals(name)) {
+                    int num = in.readUnsignedShort();
+                    for (int a = 0; a < num; a++) {
+                        String type = utf8[in.readUnsignedShort()];
+                        header.annotations.add(type);
+                        int pairs = in.readUnsignedShort();
+                        for (int p = 0; p < pairs; p++) {
+                            String key = utf8[in.readUnsignedShort()];
+                            String value = readElementValue(in, utf8);
+                            if ("value".equals(key) && value != null) {
+                                header.enumValues.put(type, value);
+                            }
+                        }
+                    }
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+            return header;
+        }
+
+        static void skipAttributes(DataInputStream in) throws IOException {
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+
+        /**
+         * 读取注解值，仅返回枚举常量名
+         */
+        static String readElementValue(DataInputStream in, String[] utf8) throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 'e':
+                    in.skipBytes(2);
+                    return utf8[in.readUnsignedShort()];
+                case '@':
+                    in.skipBytes(2);
+                    int pairs = in.readUnsignedShort();
+                    for (int i = 0; i < pairs; i++) {
+                        in.skipBytes(2);
+                        readElementValue(in, utf8);
+                    }
+                    return null;
+                case '[':
+                    int size = in.readUnsignedShort();
+                    for (int i = 0; i < size; i++) {
+                        readElementValue(in, utf8);
+                    }
+                    return null;
+                default:
+                    in.skipBytes(2);
+                    return null;
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.tabooproject.reflex.ClassField;
 import org.tabooproject.reflex.ClassMethod;
 import taboolib.common.LifeCycle;
 
+import java.lang.annotation.Annotation;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -73,6 +75,17 @@ public abstract class ClassVisitor {
     public void visit(@NotNull ClassMethod method, @NotNull Class<?> clazz, @Nullable Supplier<?> instance) {
     }
 
+    /**
+     * 获取该接口关心的字段与方法注解
+     * 若返回 null 则访问所有字段与方法，否则只有带有其中任意注解的成员才会被访问
+     *
+     * @return 注解列表
+     */
+    @Nullable
+    public List<Class<? extends Annotation>> getTargetAnnotations() {
+        return null;
+    }
+
     /**
      * 获取优先级
      *
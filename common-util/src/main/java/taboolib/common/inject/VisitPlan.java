@@ -0,0 +1,157 @@
+package taboolib.common.inject;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tabooproject.reflex.ClassField;
+import org.tabooproject.reflex.ClassMethod;
+import org.tabooproject.reflex.ReflexClass;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TabooLib
+ * taboolib.common.inject.VisitPlan
+ * <p>
+ * 类的访问计划，记录类结构以及带有各个注解的字段与方法。
+ * 每个类只分析一次，此后所有生命周期与注入组共用同一份结果。
+ */
+public class VisitPlan {
+
+    private final Class<?> clazz;
+    private final ReflexClass reflexClass;
+    private final Throwable error;
+    private final Map<Class<? extends Annotation>, List<ClassField>> annotatedFields = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, List<ClassMethod>> annotatedMethods = new ConcurrentHashMap<>();
+
+    VisitPlan(@NotNull Class<?> clazz) {
+        this.clazz = clazz;
+        ReflexClass rc = null;
+        Throwable err = null;
+        try {
+            rc = ReflexClass.Companion.of(clazz, true);
+        } catch (Throwable ex) {
+            err = ex;
+        }
+        this.reflexClass = rc;
+        this.error = err;
+    }
+
+    /**
+     * 预先分析给定注解
+     */
+    void analyze(@NotNull Collection<Class<? extends Annotation>> annotations) {
+        for (Class<? extends Annotation> annotation : annotations) {
+            getFields(annotation);
+            getMethods(annotation);
+        }
+    }
+
+    @NotNull
+    public Class<?> getClazz() {
+        return clazz;
+    }
+
+    /**
+     * 获取类结构，若分析失败则返回 null
+     */
+    @Nullable
+    public ReflexClass getReflexClass() {
+        return reflexClass;
+    }
+
+    /**
+     * 获取分析时产生的异常
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * 获取所有字段
+     */
+    @NotNull
+    public List<ClassField> getFields() {
+        return reflexClass == null ? Collections.emptyList() : reflexClass.getStructure().getFields();
+    }
+
+    /**
+     * 获取所有方法
+     */
+    @NotNull
+    public List<ClassMethod> getMethods() {
+        return reflexClass == null ? Collections.emptyList() : reflexClass.getStructure().getMethods();
+    }
+
+    /**
+     * 获取带有给定注解的字段
+     */
+    @NotNull
+    public List<ClassField> getFields(@NotNull Class<? extends Annotation> annotation) {
+        return annotatedFields.computeIfAbsent(annotation, a -> {
+            List<ClassField> list = new ArrayList<>();
+            for (ClassField field : getFields()) {
+                if (field.isAnnotationPresent(a)) {
+                    list.add(field);
+                }
+            }
+            return list.isEmpty() ? Collections.emptyList() : list;
+        });
+    }
+
+    /**
+     * 获取带有给定注解的方法
+     */
+    @NotNull
+    public List<ClassMethod> getMethods(@NotNull Class<? extends Annotation> annotation) {
+        return annotatedMethods.computeIfAbsent(annotation, a -> {
+            List<ClassMethod> list = new ArrayList<>();
+            for (ClassMethod method : getMethods()) {
+                if (method.isAnnotationPresent(a)) {
+                    list.add(method);
+                }
+            }
+            return list.isEmpty() ? Collections.emptyList() : list;
+        });
+    }
+
+    /**
+     * 获取给定接口需要访问的字段
+     */
+    @NotNull
+    public Collection<ClassField> getFields(@NotNull ClassVisitor visitor) {
+        List<Class<? extends Annotation>> targets = visitor.getTargetAnnotations();
+        if (targets == null) {
+            return getFields();
+        }
+        if (targets.size() == 1) {
+            return getFields(targets.get(0));
+        }
+        Set<ClassField> set = new LinkedHashSet<>();
+        for (Class<? extends Annotation> target : targets) {
+            set.addAll(getFields(target));
+        }
+        return set;
+    }
+
+    /**
+     * 获取给定接口需要访问的方法
+     */
+    @NotNull
+    public Collection<ClassMethod> getMethods(@NotNull ClassVisitor visitor) {
+        List<Class<? extends Annotation>> targets = visitor.getTargetAnnotations();
+        if (targets == null) {
+            return getMethods();
+        }
+        if (targets.size() == 1) {
+            return getMethods(targets.get(0));
+        }
+        Set<ClassMethod> set = new LinkedHashSet<>();
+        for (Class<? extends Annotation> target : targets) {
+            set.addAll(getMethods(target));
+        }
+        return set;
+    }
+}
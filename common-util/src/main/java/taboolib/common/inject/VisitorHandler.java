@@ -4,9 +4,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.tabooproject.reflex.ClassField;
 import org.tabooproject.reflex.ClassMethod;
-import org.tabooproject.reflex.ReflexClass;
-import taboolib.common.LifeCycle;
 import taboolib.common.Inject;
+import taboolib.common.LifeCycle;
+import taboolib.common.PrimitiveIO;
+import taboolib.common.PrimitiveSettings;
 import taboolib.common.TabooLib;
 import taboolib.common.io.ProjectIdKt;
 import taboolib.common.io.ProjectScannerKt;
@@ -14,7 +15,9 @@ import taboolib.common.platform.Ghost;
 import taboolib.common.platform.Platform;
 import taboolib.common.platform.SkipTo;
 
+import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
@@ -29,6 +32,16 @@ public class VisitorHandler {
 
     private static final NavigableMap<Byte, VisitorGroup> propertyMap = Collections.synchronizedNavigableMap(new TreeMap<>());
     private static final Set<Class<?>> classes = new HashSet<>();
+    private static final Map<Class<?>, VisitPlan> planMap = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Integer> overrideMap = new ConcurrentHashMap<>();
+    private static final Map<String, Long> visitorCost = new ConcurrentHashMap<>();
+    private static final Map<String, Long> classCost = new ConcurrentHashMap<>();
+
+    private static final int OVERRIDE_START = 1;
+    private static final int OVERRIDE_END = 1 << 1;
+    private static final int OVERRIDE_FIELD = 1 << 2;
+    private static final int OVERRIDE_METHOD = 1 << 3;
+    private static final int REPORT_LIMIT = 10;
 
     static void init() {
         for (LifeCycle lifeCycle : LifeCycle.values()) {
@@ -69,11 +82,19 @@ public class VisitorHandler {
      * @param lifeCycle 生命周期
      */
     public static void injectAll(@NotNull LifeCycle lifeCycle) {
+        Set<Class<?>> all = getClasses();
+        // 并行分析各个类的结构，类之间互不依赖
+        Set<Class<? extends Annotation>> targets = getTargetAnnotations();
+        all.parallelStream().filter(clazz -> !clazz.isAnnotationPresent(Ghost.class)).forEach(clazz -> getPlan(clazz).analyze(targets));
         for (Map.Entry<Byte, VisitorGroup> entry : propertyMap.entrySet()) {
-            for (Class<?> clazz : getClasses()) {
+            for (Class<?> clazz : all) {
                 inject(clazz, entry.getValue(), lifeCycle);
             }
         }
+        // 开发者模式下打印耗时报告
+        if (PrimitiveSettings.IS_DEBUG_MODE) {
+            printReport(lifeCycle);
+        }
     }
 
     /**
@@ -95,93 +116,264 @@ public class VisitorHandler {
                 return;
             }
         }
+        List<ClassVisitor> visitors = group.get(lifeCycle);
+        if (visitors.isEmpty()) {
+            return;
+        }
+        // 获取访问计划
+        VisitPlan plan = getPlan(clazz);
+        if (plan.getError() != null) {
+            new ClassVisitException(clazz, plan.getError()).printStackTrace();
+            return;
+        }
+        // 没有任何工作的类直接跳过
+        if (!hasWork(plan, visitors)) {
+            return;
+        }
+        long time = System.nanoTime();
         // 获取实例
         Supplier<?> instance = ProjectScannerKt.getInstance(clazz, false);
-        // 获取结构
-        ReflexClass rc;
+        // 依赖注入
+        visitStart(clazz, group, lifeCycle, visitors, instance);
+        visitField(clazz, group, lifeCycle, visitors, plan, instance);
+        visitMethod(clazz, group, lifeCycle, visitors, plan, instance);
+        visitEnd(clazz, group, lifeCycle, visitors, instance);
+        if (PrimitiveSettings.IS_DEBUG_MODE) {
+            classCost.merge(clazz.getName(), System.nanoTime() - time, Long::sum);
+        }
+    }
+
+    /**
+     * 获取类的访问计划
+     *
+     * @param clazz 类
+     */
+    @NotNull
+    public static VisitPlan getPlan(@NotNull Class<?> clazz) {
+        return planMap.computeIfAbsent(clazz, VisitPlan::new);
+    }
+
+    /**
+     * 获取所有已注册接口关心的注解
+     */
+    private static Set<Class<? extends Annotation>> getTargetAnnotations() {
+        Set<Class<? extends Annotation>> set = new HashSet<>();
+        for (VisitorGroup group : propertyMap.values()) {
+            for (ClassVisitor visitor : group.getAll()) {
+                List<Class<? extends Annotation>> targets = visitor.getTargetAnnotations();
+                if (targets != null) {
+                    set.addAll(targets);
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * 判断给定类在当前接口下是否有需要访问的内容
+     */
+    private static boolean hasWork(VisitPlan plan, List<ClassVisitor> visitors) {
+        for (ClassVisitor visitor : visitors) {
+            int mask = getOverrideMask(visitor);
+            if ((mask & OVERRIDE_START) != 0 || (mask & OVERRIDE_END) != 0) {
+                return true;
+            }
+            if ((mask & OVERRIDE_FIELD) != 0 && !plan.getFields(visitor).isEmpty()) {
+                return true;
+            }
+            if ((mask & OVERRIDE_METHOD) != 0 && !plan.getMethods(visitor).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取接口重写了哪些访问方法
+     */
+    private static int getOverrideMask(ClassVisitor visitor) {
+        return overrideMap.computeIfAbsent(visitor.getClass(), type -> {
+            int mask = 0;
+            if (isOverridden(type, "visitStart", Class.class, Supplier.class)) {
+                mask |= OVERRIDE_START;
+            }
+            if (isOverridden(type, "visitEnd", Class.class, Supplier.class)) {
+                mask |= OVERRIDE_END;
+            }
+            if (isOverridden(type, "visit", ClassField.class, Class.class, Supplier.class)) {
+                mask |= OVERRIDE_FIELD;
+            }
+            if (isOverridden(type, "visit", ClassMethod.class, Class.class, Supplier.class)) {
+                mask |= OVERRIDE_METHOD;
+            }
+            return mask;
+        });
+    }
+
+    private static boolean isOverridden(Class<?> type, String name, Class<?>... parameterTypes) {
         try {
-            rc = ReflexClass.Companion.of(clazz, true);
-        } catch (Throwable ex) {
-            new ClassVisitException(clazz, ex).printStackTrace();
-            return;
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != ClassVisitor.class;
+        } catch (NoSuchMethodException ex) {
+            return true;
         }
-        // 依赖注入
-        visitStart(clazz, group, lifeCycle, rc, instance);
-        visitField(clazz, group, lifeCycle, rc, instance);
-        visitMethod(clazz, group, lifeCycle, rc, instance);
-        visitEnd(clazz, group, lifeCycle, rc, instance);
     }
 
-    private static void visitStart(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, ReflexClass reflexClass, Supplier<?> instance) {
-        for (ClassVisitor visitor : group.get(lifeCycle)) {
+    private static void visitStart(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, List<ClassVisitor> visitors, Supplier<?> instance) {
+        for (ClassVisitor visitor : visitors) {
+            if ((getOverrideMask(visitor) & OVERRIDE_START) == 0) {
+                continue;
+            }
+            long time = System.nanoTime();
             try {
                 visitor.visitStart(clazz, instance);
             } catch (Throwable ex) {
                 new ClassVisitException(clazz, group, lifeCycle, ex).printStackTrace();
             }
+            record(visitor, time);
         }
     }
 
-    private static void visitField(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, ReflexClass reflexClass, Supplier<?> instance) {
-        for (ClassVisitor visitor : group.get(lifeCycle)) {
-            for (ClassField field : reflexClass.getStructure().getFields()) {
+    private static void visitField(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, List<ClassVisitor> visitors, VisitPlan plan, Supplier<?> instance) {
+        for (ClassVisitor visitor : visitors) {
+            if ((getOverrideMask(visitor) & OVERRIDE_FIELD) == 0) {
+                continue;
+            }
+            long time = System.nanoTime();
+            for (ClassField field : plan.getFields(visitor)) {
                 try {
                     visitor.visit(field, clazz, instance);
                 } catch (Throwable ex) {
                     new ClassVisitException(clazz, group, lifeCycle, field, ex).printStackTrace();
                 }
             }
+            record(visitor, time);
         }
     }
 
-    private static void visitMethod(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, ReflexClass reflexClass, Supplier<?> instance) {
-        for (ClassVisitor visitor : group.get(lifeCycle)) {
-            for (ClassMethod method : reflexClass.getStructure().getMethods()) {
+    private static void visitMethod(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, List<ClassVisitor> visitors, VisitPlan plan, Supplier<?> instance) {
+        for (ClassVisitor visitor : visitors) {
+            if ((getOverrideMask(visitor) & OVERRIDE_METHOD) == 0) {
+                continue;
+            }
+            long time = System.nanoTime();
+            for (ClassMethod method : plan.getMethods(visitor)) {
                 try {
                     visitor.visit(method, clazz, instance);
                 } catch (Throwable ex) {
                     new ClassVisitException(clazz, group, lifeCycle, method, ex).printStackTrace();
                 }
             }
+            record(visitor, time);
         }
     }
 
-    private static void visitEnd(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, ReflexClass reflexClass, Supplier<?> instance) {
-        for (ClassVisitor visitor : group.get(lifeCycle)) {
+    private static void visitEnd(Class<?> clazz, VisitorGroup group, LifeCycle lifeCycle, List<ClassVisitor> visitors, Supplier<?> instance) {
+        for (ClassVisitor visitor : visitors) {
+            if ((getOverrideMask(visitor) & OVERRIDE_END) == 0) {
+                continue;
+            }
+            long time = System.nanoTime();
             try {
                 visitor.visitEnd(clazz, instance);
             } catch (Throwable ex) {
                 new ClassVisitException(clazz, group, lifeCycle, ex).printStackTrace();
             }
+            record(visitor, time);
+        }
+    }
+
+    private static void record(ClassVisitor visitor, long start) {
+        if (PrimitiveSettings.IS_DEBUG_MODE) {
+            visitorCost.merge(visitor.toString(), System.nanoTime() - start, Long::sum);
         }
     }
 
+    /**
+     * 打印当前生命周期的耗时报告并清空记录
+     */
+    private static void printReport(LifeCycle lifeCycle) {
+        if (visitorCost.isEmpty() && classCost.isEmpty()) {
+            return;
+        }
+        PrimitiveIO.println("Inject report (%s):", lifeCycle);
+        printTop("  visitor", visitorCost);
+        printTop("  class", classCost);
+        visitorCost.clear();
+        classCost.clear();
+    }
+
+    private static void printTop(String prefix, Map<String, Long> map) {
+        map.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(REPORT_LIMIT)
+                .forEach(it -> PrimitiveIO.println("%s %s: %.2fms", prefix, it.getKey(), it.getValue() / 1_000_000.0));
+    }
+
     /**
      * 获取能够被 ClassVisitor 访问到的所有类
+     * 优先读取构建时生成的类索引，索引不存在时回退到扫描插件文件
      */
     public static Set<Class<?>> getClasses() {
         if (classes.isEmpty()) {
-            // 获取所有类
-            for (Map.Entry<String, Class<?>> it : ProjectScannerKt.getRunningClassMap().entrySet()) {
-                // 只扫自己
-                if (it.getKey().startsWith(ProjectIdKt.getGroupId())) {
-                    // 排除第三方库
-                    // 位于 com.example.plugin.library.* 或 com.example.plugin.taboolib.library.* 下的包不会被检查
-                    if (it.getKey().startsWith(ProjectIdKt.getGroupId() + ".library") || it.getKey().startsWith(ProjectIdKt.getTaboolibPath() + ".library")) {
-                        continue;
-                    }
-                    // 排除 TabooLib 的非开放类
-                    if (it.getKey().startsWith(ProjectIdKt.getTaboolibPath()) && !it.getValue().isAnnotationPresent(Inject.class)) {
-                        continue;
-                    }
-                    // 排除其他平台
-                    if (!Platform.check(it.getValue())) {
-                        continue;
-                    }
-                    classes.add(it.getValue());
+            ClassIndex index = ClassIndex.current();
+            if (index != null) {
+                loadFromIndex(index);
+                // 由 ClassAppender 加载的类不在索引中
+                for (Map.Entry<String, Class<?>> it : ProjectScannerKt.getExtraLoadedClasses().entrySet()) {
+                    check(it.getKey(), it.getValue());
+                }
+            } else {
+                // 获取所有类
+                for (Map.Entry<String, Class<?>> it : ProjectScannerKt.getRunningClassMap().entrySet()) {
+                    check(it.getKey(), it.getValue());
                 }
             }
         }
         return classes;
     }
+
+    private static void loadFromIndex(ClassIndex index) {
+        ClassLoader classLoader = TabooLib.class.getClassLoader();
+        for (ClassIndex.Entry entry : index.getEntries()) {
+            // 跳过注入的类无需加载
+            if (entry.hasFlag(ClassIndex.FLAG_GHOST)) {
+                continue;
+            }
+            // 排除 TabooLib 的非开放类（仅供 PlatformFactory 使用的条目）
+            if (entry.getName().startsWith(ProjectIdKt.getTaboolibPath()) && !entry.hasFlag(ClassIndex.FLAG_INJECT)) {
+                continue;
+            }
+            Class<?> clazz;
+            try {
+                clazz = Class.forName(entry.getName(), false, classLoader);
+            } catch (Throwable ignored) {
+                continue;
+            }
+            // 排除其他平台
+            if (entry.hasFlag(ClassIndex.FLAG_PLATFORM_SIDE) && !Platform.check(clazz)) {
+                continue;
+            }
+            classes.add(clazz);
+        }
+    }
+
+    private static void check(String name, Class<?> clazz) {
+        // 只扫自己
+        if (name.startsWith(ProjectIdKt.getGroupId())) {
+            // 排除第三方库
+            // 位于 com.example.plugin.library.* 或 com.example.plugin.taboolib.library.* 下的包不会被检查
+            if (name.startsWith(ProjectIdKt.getGroupId() + ".library") || name.startsWith(ProjectIdKt.getTaboolibPath() + ".library")) {
+                return;
+            }
+            // 排除 TabooLib 的非开放类
+            if (name.startsWith(ProjectIdKt.getTaboolibPath()) && !clazz.isAnnotationPresent(Inject.class)) {
+                return;
+            }
+            // 排除其他平台
+            if (!Platform.check(clazz)) {
+                return;
+            }
+            classes.add(clazz);
+        }
+    }
 }
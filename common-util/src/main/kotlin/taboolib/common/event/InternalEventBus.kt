@@ -1,7 +1,6 @@
 package taboolib.common.event
 
 import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.ConcurrentSkipListMap
 import java.util.concurrent.CopyOnWriteArrayList
 
 /**
@@ -46,17 +45,21 @@ interface InternalEventBus {
         var impl = object : InternalEventBus {
 
             /** 已注册的监听器 */
-            val registeredListeners = ConcurrentHashMap<Class<*>, MutableMap<Int, MutableList<RegisteredListener>>>()
+            val registeredListeners = CopyOnWriteArrayList<RegisteredListener>()
+
+            /** 分发表：事件类 -> 按优先级排序的监听器（包含监听其父类的监听器），在注册或注销监听器时失效 */
+            @Volatile
+            var dispatchTable = ConcurrentHashMap<Class<*>, Array<RegisteredListener>>()
 
             override fun isListening(cls: Class<*>): Boolean {
-                return registeredListeners.containsKey(cls) && registeredListeners[cls]!!.any { it.value.isNotEmpty() }
+                return getListeners(cls).isNotEmpty()
             }
 
             override fun <T : InternalEvent> call(event: T) {
-                registeredListeners[event.javaClass]?.entries?.flatMap { it.value }?.forEach { listener ->
+                for (listener in getListeners(event.javaClass)) {
                     // 如果事件可取消 & 事件已被取消 & 监听器忽略取消事件
                     if (event is CancelableInternalEvent && event.isCancelled && listener.ignoreCancelled) {
-                        return@forEach
+                        continue
                     }
                     // 运行函数
                     listener.invoke(event)
@@ -66,15 +69,26 @@ interface InternalEventBus {
             @Suppress("UNCHECKED_CAST")
             override fun <T : InternalEvent> listen(cls: Class<T>, priority: Int, ignoreCancelled: Boolean, listener: (event: T) -> Unit): InternalListener {
                 val registeredListener = RegisteredListener(cls, priority, ignoreCancelled, listener as (Any) -> Unit)
-                registeredListeners.getOrPut(cls) { ConcurrentSkipListMap() }.getOrPut(priority) { CopyOnWriteArrayList() }.add(registeredListener)
+                registeredListeners.add(registeredListener)
+                dispatchTable = ConcurrentHashMap()
                 return registeredListener
             }
 
+            /** 获取事件类对应的监听器，不存在时编译 */
+            fun getListeners(cls: Class<*>): Array<RegisteredListener> {
+                val table = dispatchTable
+                return table[cls] ?: table.getOrPut(cls) {
+                    registeredListeners.filter { it.cls.isAssignableFrom(cls) }.sortedBy { it.priority }.toTypedArray()
+                }
+            }
+
             /** 已注册的监听器 */
             inner class RegisteredListener(val cls: Class<*>, val priority: Int, val ignoreCancelled: Boolean, val listener: (event: Any) -> Unit) : InternalListener {
 
                 override fun cancel() {
-                    registeredListeners[cls]?.get(priority)?.remove(this)
+                    if (registeredListeners.remove(this)) {
+                        dispatchTable = ConcurrentHashMap()
+                    }
                 }
 
                 fun invoke(event: Any) {
@@ -83,4 +97,4 @@ interface InternalEventBus {
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,198 @@
+package taboolib.common.io
+
+import java.io.File
+import java.io.FileNotFoundException
+import java.lang.ref.SoftReference
+import java.util.concurrent.ConcurrentHashMap
+import java.util.jar.JarFile
+
+/**
+ * 延迟加载的资源文件表
+ * 仅记录文件名及其所在的插件文件，读取时才从插件文件中取出内容
+ *
+ * 读取结果可能来自缓存并被多次返回，调用者不应修改返回的字节数组。
+ *
+ * @param useCache 是否使用软引用缓存已读取的内容（内存不足时由虚拟机回收）
+ */
+class LazyResourceMap(val useCache: Boolean = true) : AbstractMap<String, ByteArray>() {
+
+    private val index = ConcurrentHashMap<String, Resource>()
+
+    /**
+     * 当前驻留在缓存中的字节数
+     */
+    val residentBytes: Long
+        get() = index.values.sumOf { it.resident() }
+
+    /**
+     * 记录文件（或目录）下的所有资源文件（不读取内容）
+     * 同一个插件文件只会在首次读取时打开一次，直到 [close] 为止（当前插件的资源文件表在 DISABLE 生命周期下关闭）
+     */
+    fun index(source: File) {
+        val origin = Origin(source)
+        if (source.isFile) {
+            JarFile(source).use { jar ->
+                jar.stream().filter { !it.name.endsWith(".class") && !it.isDirectory }.forEach {
+                    index[it.name] = Resource(origin, it.name, it.size, useCache)
+                }
+            }
+        } else {
+            source.walkTopDown().filter { it.isFile && it.extension != "class" }.forEach {
+                val name = it.path.substringAfter(source.path).drop(1).replace(File.separatorChar, '/')
+                index[name] = Resource(origin, name, it.length(), useCache)
+            }
+        }
+    }
+
+    /**
+     * 记录已在内存中的资源文件
+     */
+    fun putAll(resources: Map<String, ByteArray>) {
+        resources.forEach { (name, bytes) -> index[name] = Resource(name, bytes) }
+    }
+
+    /**
+     * 记录单个已在内存中的资源文件
+     */
+    fun put(name: String, bytes: ByteArray) {
+        index[name] = Resource(name, bytes)
+    }
+
+    /**
+     * 移除资源文件
+     */
+    fun remove(name: String) {
+        index.remove(name)
+    }
+
+    /**
+     * 移除所有资源文件
+     */
+    fun clear() {
+        index.clear()
+    }
+
+    /**
+     * 合并另一个资源文件表，共用已缓存的内容与打开的插件文件
+     */
+    fun merge(other: LazyResourceMap) {
+        index.putAll(other.index)
+    }
+
+    /**
+     * 获取资源文件的大小（未知则为 -1）
+     */
+    fun sizeOf(name: String): Long {
+        return index[name]?.size ?: -1
+    }
+
+    /**
+     * 释放所有缓存
+     */
+    fun clearCache() {
+        index.values.forEach { it.cached = null }
+    }
+
+    /**
+     * 关闭所有打开的插件文件，之后读取时会重新打开
+     */
+    fun close() {
+        index.values.mapNotNullTo(HashSet()) { it.origin }.forEach { it.close() }
+    }
+
+    override val size: Int
+        get() = index.size
+
+    override val keys: Set<String>
+        get() = index.keys
+
+    override fun isEmpty(): Boolean {
+        return index.isEmpty()
+    }
+
+    override fun containsKey(key: String): Boolean {
+        return index.containsKey(key)
+    }
+
+    override fun get(key: String): ByteArray? {
+        return index[key]?.read()
+    }
+
+    override val entries: Set<Map.Entry<String, ByteArray>>
+        get() = index.values.mapTo(LinkedHashSet()) { res ->
+            object : Map.Entry<String, ByteArray> {
+
+                override val key: String
+                    get() = res.name
+
+                override val value: ByteArray
+                    get() = res.read()
+            }
+        }
+
+    /**
+     * 资源文件
+     */
+    class Resource private constructor(internal val origin: Origin?, val name: String, val size: Long, val useCache: Boolean, private val bytes: ByteArray?) {
+
+        internal constructor(origin: Origin, name: String, size: Long, useCache: Boolean) : this(origin, name, size, useCache, null)
+
+        internal constructor(name: String, bytes: ByteArray) : this(null, name, bytes.size.toLong(), false, bytes)
+
+        /** 资源文件所在的插件文件（或目录），内存中的资源文件为 null */
+        val source: File?
+            get() = origin?.file
+
+        @Volatile
+        internal var cached: SoftReference<ByteArray>? = null
+
+        /**
+         * 读取内容，调用者不应修改返回的字节数组
+         *
+         * @throws FileNotFoundException 资源文件已不存在
+         */
+        fun read(): ByteArray {
+            if (bytes != null) {
+                return bytes
+            }
+            cached?.get()?.let { return it }
+            val content = origin!!.read(name)
+            if (useCache) {
+                cached = SoftReference(content)
+            }
+            return content
+        }
+
+        internal fun resident(): Long {
+            return bytes?.size?.toLong() ?: cached?.get()?.size?.toLong() ?: 0L
+        }
+    }
+
+    /**
+     * 插件文件（或开发环境下的目录），插件文件在首次读取时打开并保持打开
+     */
+    internal class Origin(val file: File) {
+
+        @Volatile
+        private var jar: JarFile? = null
+
+        fun read(name: String): ByteArray {
+            if (!file.isFile) {
+                val target = File(file, name)
+                if (!target.isFile) {
+                    throw FileNotFoundException("$name (${file.path})")
+                }
+                return target.readBytes()
+            }
+            val jar = jar ?: synchronized(this) { jar ?: JarFile(file).also { jar = it } }
+            val entry = jar.getJarEntry(name) ?: throw FileNotFoundException("$name (${file.path})")
+            return jar.getInputStream(entry).use { it.readBytes() }
+        }
+
+        @Synchronized
+        fun close() {
+            jar?.close()
+            jar = null
+        }
+    }
+}
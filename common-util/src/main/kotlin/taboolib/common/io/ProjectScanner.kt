@@ -4,6 +4,7 @@ package taboolib.common.io
 
 import org.tabooproject.reflex.ReflexClass
 import taboolib.common.ClassAppender
+import taboolib.common.LifeCycle
 import taboolib.common.PrimitiveIO
 import taboolib.common.PrimitiveSettings
 import taboolib.common.TabooLib
@@ -69,29 +70,107 @@ val runningExactClasses: List<Class<*>>
 
 /**
  * 当前插件的所有资源文件（在本体中）
+ * 仅记录文件名，内容在读取时才从插件文件中取出
  */
-val runningResourcesInJar by lazy(LazyThreadSafetyMode.NONE) { TabooLib::class.java.protectionDomain.codeSource.location.getResources() }
+val runningResourcesInJar: Map<String, ByteArray>
+    get() = lazyResourcesInJar
+
+private val lazyResourcesInJarDelegate = lazy(LazyThreadSafetyMode.NONE) {
+    TabooLib::class.java.protectionDomain.codeSource.location.getLazyResources().also { closeResourcesOnDisable }
+}
+
+private val lazyResourcesInJar by lazyResourcesInJarDelegate
+
+/**
+ * 在 DISABLE 生命周期下关闭资源文件表打开的插件文件
+ */
+private val closeResourcesOnDisable by lazy {
+    TabooLib.registerLifeCycleTask(LifeCycle.DISABLE, 0) {
+        if (lazyResourcesInJarDelegate.isInitialized()) {
+            lazyResourcesInJar.close()
+        }
+        extraLoadedResourceMap.close()
+    }
+}
 
 /**
  * 当前插件的所有资源文件
  */
 val runningResources: Map<String, ByteArray>
     get() {
-        val map = LinkedHashMap<String, ByteArray>()
-        map.putAll(runningResourcesInJar)
-        map.putAll(extraLoadedResources)
+        val map = LazyResourceMap()
+        map.merge(lazyResourcesInJar)
+        map.merge(extraLoadedResourceMap)
         return map
     }
 
+/**
+ * 当前驻留在内存中的资源文件字节数
+ */
+val runningResourcesResidentBytes: Long
+    get() = lazyResourcesInJar.residentBytes + extraLoadedResourceMap.residentBytes
+
 /**
  * 由 ClassAppender 加载的类
  */
 var extraLoadedClasses = ConcurrentHashMap<String, Class<*>>()
 
+/**
+ * 由 ClassAppender 加载的资源文件（延迟读取）
+ */
+val extraLoadedResourceMap = LazyResourceMap()
+
 /**
  * 由 ClassAppender 加载的资源文件
+ * 读取时会复制 [extraLoadedResourceMap] 中所有资源文件的内容，对返回值的写入会同步到 [extraLoadedResourceMap] 中
  */
-var extraLoadedResources = ConcurrentHashMap<String, ByteArray>()
+@Deprecated("每次读取都会加载所有资源文件", ReplaceWith("extraLoadedResourceMap"))
+var extraLoadedResources: ConcurrentHashMap<String, ByteArray>
+    get() = ExtraLoadedResourcesView()
+    set(value) {
+        extraLoadedResourceMap.putAll(value)
+    }
+
+/**
+ * [extraLoadedResources] 的返回值，写入操作同步到 [extraLoadedResourceMap] 中
+ */
+private class ExtraLoadedResourcesView : ConcurrentHashMap<String, ByteArray>() {
+
+    init {
+        extraLoadedResourceMap.forEach { (k, v) -> super.put(k, v) }
+    }
+
+    override fun put(key: String, value: ByteArray): ByteArray? {
+        extraLoadedResourceMap.put(key, value)
+        return super.put(key, value)
+    }
+
+    override fun putAll(from: Map<out String, ByteArray>) {
+        from.forEach { (k, v) -> put(k, v) }
+    }
+
+    override fun putIfAbsent(key: String, value: ByteArray): ByteArray? {
+        val previous = super.putIfAbsent(key, value)
+        if (previous == null) {
+            extraLoadedResourceMap.put(key, value)
+        }
+        return previous
+    }
+
+    override fun computeIfAbsent(key: String, mappingFunction: java.util.function.Function<in String, out ByteArray>): ByteArray {
+        return super.get(key) ?: mappingFunction.apply(key).also { put(key, it) }
+    }
+
+    override fun remove(key: String): ByteArray? {
+        extraLoadedResourceMap.remove(key)
+        return super.remove(key)
+    }
+
+    override fun clear() {
+        extraLoadedResourceMap.clear()
+        super.clear()
+    }
+}
 
 /**
  * 取该类在当前项目中被加载的任何实例
@@ -178,7 +257,15 @@ fun URL.getClasses(classLoader: ClassLoader = TabooLib::class.java.classLoader):
  * 获取 URL 下的所有文件
  */
 fun URL.getResources(): Map<String, ByteArray> {
-    val resources = LinkedHashMap<String, ByteArray>()
+    return getLazyResources()
+}
+
+/**
+ * 获取 URL 下的所有文件（延迟读取）
+ *
+ * @param useCache 是否使用软引用缓存已读取的内容
+ */
+fun URL.getLazyResources(useCache: Boolean = true): LazyResourceMap {
     val srcFile = try {
         File(toURI())
     } catch (ex: IllegalArgumentException) {
@@ -186,10 +273,8 @@ fun URL.getResources(): Map<String, ByteArray> {
     } catch (ex: URISyntaxException) {
         File(path)
     }
-    val jarFile = JarFile(srcFile)
-    jarFile.stream().filter { !it.name.endsWith(".class") && !it.isDirectory }.forEach {
-        resources[it.name] = jarFile.getInputStream(jarFile.getJarEntry(it.name)).readBytes()
-    }
+    val resources = LazyResourceMap(useCache)
+    resources.index(srcFile)
     return resources
 }
 
@@ -219,7 +304,8 @@ private fun init() {
         // 只有内部库会被收录
         if (!isExternal) {
             extraLoadedClasses += file.toURI().toURL().getClasses(loader)
-            extraLoadedResources += file.toURI().toURL().getResources()
+            extraLoadedResourceMap.merge(file.toURI().toURL().getLazyResources())
+            closeResourcesOnDisable
         }
     }
     // PrimitiveIO.println("Kotlin Env: %s", TabooLib.isKotlinEnvironment())
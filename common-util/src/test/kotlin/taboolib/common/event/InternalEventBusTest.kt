@@ -0,0 +1,75 @@
+package taboolib.common.event
+
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+
+class InternalEventBusTest {
+
+    open class BaseEvent : CancelableInternalEvent()
+
+    class ChildEvent : BaseEvent()
+
+    class OtherEvent : InternalEvent()
+
+    private val listeners = ArrayList<InternalListener>()
+
+    @AfterEach
+    fun cancelAll() {
+        listeners.forEach { it.cancel() }
+        listeners.clear()
+    }
+
+    private inline fun <reified T : InternalEvent> listen(priority: Int = 0, ignoreCancelled: Boolean = false, noinline listener: (T) -> Unit) {
+        listeners += InternalEventBus.listen(priority, ignoreCancelled, listener)
+    }
+
+    @Test
+    fun dispatchesByPriority() {
+        val order = ArrayList<Int>()
+        listen<ChildEvent>(priority = 10) { order += 10 }
+        listen<ChildEvent>(priority = -5) { order += -5 }
+        listen<ChildEvent>(priority = 0) { order += 0 }
+        ChildEvent().call()
+        assertEquals(listOf(-5, 0, 10), order)
+    }
+
+    @Test
+    fun supertypeListenersReceiveSubtypes() {
+        val received = ArrayList<String>()
+        listen<BaseEvent>(priority = 1) { received += "base" }
+        listen<ChildEvent>(priority = 0) { received += "child" }
+        assertTrue(InternalEventBus.isListening(ChildEvent::class.java))
+        assertFalse(InternalEventBus.isListening(OtherEvent::class.java))
+        ChildEvent().call()
+        BaseEvent().call()
+        assertEquals(listOf("child", "base", "base"), received)
+    }
+
+    @Test
+    fun cancelledEventsSkipIgnoringListeners() {
+        var ignored = 0
+        var monitor = 0
+        listen<BaseEvent>(priority = 0) { it.isCancelled = true }
+        listen<BaseEvent>(priority = 1, ignoreCancelled = true) { ignored++ }
+        listen<BaseEvent>(priority = 2) { monitor++ }
+        assertFalse(BaseEvent().callIf())
+        assertEquals(0, ignored)
+        assertEquals(1, monitor)
+    }
+
+    @Test
+    fun cancelledListenersAreNoLongerCalled() {
+        var count = 0
+        val listener = InternalEventBus.listen<OtherEvent> { count++ }
+        OtherEvent().call()
+        listener.cancel()
+        OtherEvent().call()
+        assertEquals(1, count)
+        assertFalse(InternalEventBus.isListening(OtherEvent::class.java))
+        // 注销后注册的监听器同样生效
+        listen<OtherEvent> { count++ }
+        OtherEvent().call()
+        assertEquals(2, count)
+    }
+}
@@ -0,0 +1,102 @@
+package taboolib.expansion
+
+import redis.clients.jedis.JedisCluster
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * TabooLib
+ * taboolib.expansion.ClusterRedisBatch
+ *
+ * 集群模式下的批处理
+ *
+ * 集群中的键分布在不同的节点上，因此命令在 [sync] 时逐个发送到对应的节点，
+ * 跨槽位的批量命令（[mget]、[mset]）会被拆分为单个命令，以避免 CROSSSLOT 错误。
+ */
+class ClusterRedisBatch(val connection: ClusterRedisConnection) : RedisBatch {
+
+    private val commands = ArrayList<Command<*>>()
+
+    override val size: Int
+        get() = commands.size
+
+    override fun get(key: String): CompletableFuture<String?> {
+        return queue { it.get(key) }
+    }
+
+    override fun set(key: String, value: String?): CompletableFuture<*> {
+        return if (value == null) delete(key) else queue { it.set(key, value) }
+    }
+
+    override fun setEx(key: String, value: String?, seconds: Long, timeUnit: TimeUnit): CompletableFuture<*> {
+        return if (value == null) delete(key) else queue { it.setex(key, timeUnit.toSeconds(seconds), value) }
+    }
+
+    override fun delete(key: String): CompletableFuture<Long> {
+        return queue { it.del(key) }
+    }
+
+    override fun expire(key: String, value: Long, timeUnit: TimeUnit): CompletableFuture<Long> {
+        return queue { it.expire(key, timeUnit.toSeconds(value)) }
+    }
+
+    override fun contains(key: String): CompletableFuture<Boolean> {
+        return queue { it.exists(key) }
+    }
+
+    override fun mget(vararg keys: String): CompletableFuture<List<String?>> {
+        val futures = keys.map { get(it) }
+        return CompletableFuture.allOf(*futures.toTypedArray()).thenApply { futures.map { it.join() } }
+    }
+
+    override fun mset(values: Map<String, String>): CompletableFuture<*> {
+        return CompletableFuture.allOf(*values.map { (k, v) -> set(k, v) }.toTypedArray())
+    }
+
+    override fun hget(key: String, field: String): CompletableFuture<String?> {
+        return queue { it.hget(key, field) }
+    }
+
+    override fun hmget(key: String, vararg fields: String): CompletableFuture<List<String?>> {
+        return queue { it.hmget(key, *fields) }
+    }
+
+    override fun hgetAll(key: String): CompletableFuture<Map<String, String>> {
+        return queue { it.hgetAll(key) }
+    }
+
+    override fun hset(key: String, field: String, value: String): CompletableFuture<Long> {
+        return queue { it.hset(key, field, value) }
+    }
+
+    override fun hset(key: String, values: Map<String, String>): CompletableFuture<Long> {
+        return queue { it.hset(key, values) }
+    }
+
+    override fun sync() {
+        if (commands.isEmpty()) {
+            return
+        }
+        val queued = ArrayList(commands)
+        commands.clear()
+        val cluster = connection.connector.cluster
+        queued.forEach { it.execute(cluster) }
+    }
+
+    private fun <T> queue(func: (JedisCluster) -> T): CompletableFuture<T> {
+        return Command(func).also { commands += it }.future
+    }
+
+    private class Command<T>(val func: (JedisCluster) -> T) {
+
+        val future = CompletableFuture<T>()
+
+        fun execute(cluster: JedisCluster) {
+            try {
+                future.complete(func(cluster))
+            } catch (ex: Throwable) {
+                future.completeExceptionally(ex)
+            }
+        }
+    }
+}
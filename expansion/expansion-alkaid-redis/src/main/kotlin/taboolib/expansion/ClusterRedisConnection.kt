@@ -50,6 +50,14 @@ class ClusterRedisConnection(val connector: ClusterRedisConnector) : Closeable,
         return connector.cluster.eval(script, keyC, *args.toTypedArray())
     }
 
+    override fun evalSha(sha: String, keys: List<String>, args: List<String>): Any? {
+        return connector.cluster.evalsha(sha, keys, args)
+    }
+
+    override fun pipeline(): RedisBatch {
+        return ClusterRedisBatch(this)
+    }
+
     override fun close() {
         connector.close()
         service.shutdown()
@@ -1,6 +1,7 @@
 package taboolib.expansion
 
 import redis.clients.jedis.JedisPubSub
+import redis.clients.jedis.exceptions.JedisDataException
 import taboolib.expansion.lock.Lock
 import java.util.concurrent.TimeUnit
 
@@ -10,6 +11,96 @@ interface IRedisConnection {
 
     fun eval(script: String, keyC: Int, args: List<String>): Any?
 
+    /**
+     * 通过 SHA1 执行已缓存的脚本
+     * 默认实现通过 `EVAL` 发送由 [RedisScript] 创建的脚本内容
+     */
+    fun evalSha(sha: String, keys: List<String>, args: List<String>): Any? {
+        val script = RedisScript.find(sha) ?: throw JedisDataException("NOSCRIPT No matching script: $sha")
+        return eval(script, keys, args)
+    }
+
+    /**
+     * 执行脚本，优先通过 `EVALSHA` 发送，服务端未缓存时回退到 `EVAL`
+     */
+    fun eval(script: RedisScript, keys: List<String>, args: List<String>): Any? {
+        return try {
+            evalSha(script.sha, keys, args)
+        } catch (ex: JedisDataException) {
+            if (ex.message?.startsWith("NOSCRIPT") == true) eval(script.script, keys, args) else throw ex
+        }
+    }
+
+    /**
+     * 创建批处理，命令在 [RedisBatch.sync] 时一次性发送
+     * 默认实现为逐条执行的 [SequentialRedisBatch]
+     */
+    fun pipeline(): RedisBatch {
+        return SequentialRedisBatch(this)
+    }
+
+    /**
+     * 在批处理中执行命令，返回时所有命令均已发送完毕
+     */
+    fun <T> pipeline(func: RedisBatch.() -> T): T {
+        val batch = pipeline()
+        return try {
+            func(batch)
+        } finally {
+            batch.sync()
+        }
+    }
+
+    /**
+     * 批量取值
+     *
+     * @param keys 键
+     * @return 值，与键的顺序一致
+     */
+    fun mget(vararg keys: String): List<String?> {
+        if (keys.isEmpty()) {
+            return emptyList()
+        }
+        return pipeline { mget(*keys) }.join()
+    }
+
+    /**
+     * 批量赋值
+     *
+     * @param values 键值对
+     */
+    fun mset(values: Map<String, String>) {
+        if (values.isEmpty()) {
+            return
+        }
+        pipeline { mset(values) }.join()
+    }
+
+    /**
+     * 批量取哈希表中的值
+     *
+     * @param key 键
+     * @param fields 字段
+     * @return 值，与字段的顺序一致
+     */
+    fun hmget(key: String, vararg fields: String): List<String?> {
+        if (fields.isEmpty()) {
+            return emptyList()
+        }
+        return pipeline { hmget(key, *fields) }.join()
+    }
+
+    /**
+     * 批量取多个哈希表中的所有值
+     *
+     * @param keys 键
+     * @return 键 -> 哈希表
+     */
+    fun hgetAll(keys: Collection<String>): Map<String, Map<String, String>> {
+        val futures = pipeline { keys.associateWith { hgetAll(it) } }
+        return futures.mapValues { it.value.join() }
+    }
+
     fun getLock(lockName: String): Lock {
         return Lock(this, lockName)
     }
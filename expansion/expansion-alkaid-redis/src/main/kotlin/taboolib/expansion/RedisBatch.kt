@@ -0,0 +1,72 @@
+package taboolib.expansion
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * TabooLib
+ * taboolib.expansion.RedisBatch
+ *
+ * 批处理（管道）
+ *
+ * 命令进入批处理后不会立即发送，而是在调用 [sync] 时一次性发送并读取结果，
+ * 每个命令返回的 [CompletableFuture] 将在 [sync] 之后完成。
+ *
+ * ```
+ * val values = connection.pipeline {
+ *     listOf(get("a"), get("b"), hgetAll("c"))
+ * }
+ * ```
+ *
+ * 批处理不是线程安全的，应当在同一个线程中使用。
+ */
+interface RedisBatch {
+
+    /** 等待发送的命令数量 */
+    val size: Int
+
+    /** 取值 */
+    fun get(key: String): CompletableFuture<String?>
+
+    /** 赋值，值为 null 时删除 */
+    fun set(key: String, value: String?): CompletableFuture<*>
+
+    /** 赋值并设置过期时间，值为 null 时删除 */
+    fun setEx(key: String, value: String?, seconds: Long, timeUnit: TimeUnit): CompletableFuture<*>
+
+    /** 删除 */
+    fun delete(key: String): CompletableFuture<Long>
+
+    /** 设置过期时间 */
+    fun expire(key: String, value: Long, timeUnit: TimeUnit): CompletableFuture<Long>
+
+    /** 是否存在 */
+    fun contains(key: String): CompletableFuture<Boolean>
+
+    /** 批量取值，结果与键的顺序一致 */
+    fun mget(vararg keys: String): CompletableFuture<List<String?>>
+
+    /** 批量赋值 */
+    fun mset(values: Map<String, String>): CompletableFuture<*>
+
+    /** 取哈希表中的值 */
+    fun hget(key: String, field: String): CompletableFuture<String?>
+
+    /** 批量取哈希表中的值，结果与字段的顺序一致 */
+    fun hmget(key: String, vararg fields: String): CompletableFuture<List<String?>>
+
+    /** 取哈希表中的所有值 */
+    fun hgetAll(key: String): CompletableFuture<Map<String, String>>
+
+    /** 赋值哈希表 */
+    fun hset(key: String, field: String, value: String): CompletableFuture<Long>
+
+    /** 批量赋值哈希表 */
+    fun hset(key: String, values: Map<String, String>): CompletableFuture<Long>
+
+    /**
+     * 发送所有命令并完成对应的 [CompletableFuture]
+     * 失败的命令将以异常完成，不影响其他命令
+     */
+    fun sync()
+}
@@ -0,0 +1,39 @@
+package taboolib.expansion
+
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * TabooLib
+ * taboolib.expansion.RedisScript
+ *
+ * Lua 脚本
+ *
+ * 脚本的 SHA1 在本地计算，执行时优先通过 `EVALSHA` 发送，
+ * 仅在服务端尚未缓存该脚本时（NOSCRIPT）才发送完整的脚本内容。
+ */
+class RedisScript(val script: String) {
+
+    /** 脚本的 SHA1 */
+    val sha: String = MessageDigest.getInstance("SHA-1").digest(script.toByteArray()).joinToString("") { "%02x".format(it) }
+
+    init {
+        scripts[sha] = script
+    }
+
+    override fun toString(): String {
+        return "RedisScript(sha='$sha')"
+    }
+
+    companion object {
+
+        private val scripts = ConcurrentHashMap<String, String>()
+
+        /**
+         * 通过 SHA1 获取已创建的脚本内容
+         */
+        fun find(sha: String): String? {
+            return scripts[sha]
+        }
+    }
+}
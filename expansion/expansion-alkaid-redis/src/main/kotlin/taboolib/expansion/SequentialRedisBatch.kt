@@ -0,0 +1,120 @@
+package taboolib.expansion
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * TabooLib
+ * taboolib.expansion.SequentialRedisBatch
+ *
+ * 逐条执行的批处理，作为 [IRedisConnection.pipeline] 的默认实现
+ *
+ * 命令在 [sync] 时依次通过连接执行，没有管道带来的往返优化，仅保证与 [RedisBatch] 相同的语义。
+ * 哈希表相关的命令通过 Lua 脚本执行。
+ */
+class SequentialRedisBatch(val connection: IRedisConnection) : RedisBatch {
+
+    private val commands = ArrayList<Command<*>>()
+
+    override val size: Int
+        get() = commands.size
+
+    override fun get(key: String): CompletableFuture<String?> {
+        return queue { connection[key] }
+    }
+
+    override fun set(key: String, value: String?): CompletableFuture<*> {
+        return queue { connection[key] = value }
+    }
+
+    override fun setEx(key: String, value: String?, seconds: Long, timeUnit: TimeUnit): CompletableFuture<*> {
+        return queue { if (value == null) connection.delete(key) else connection.setEx(key, value, seconds, timeUnit) }
+    }
+
+    override fun delete(key: String): CompletableFuture<Long> {
+        return queue {
+            val exists = connection.contains(key)
+            connection.delete(key)
+            if (exists) 1L else 0L
+        }
+    }
+
+    override fun expire(key: String, value: Long, timeUnit: TimeUnit): CompletableFuture<Long> {
+        return queue {
+            val exists = connection.contains(key)
+            connection.expire(key, value, timeUnit)
+            if (exists) 1L else 0L
+        }
+    }
+
+    override fun contains(key: String): CompletableFuture<Boolean> {
+        return queue { connection.contains(key) }
+    }
+
+    override fun mget(vararg keys: String): CompletableFuture<List<String?>> {
+        return queue { keys.map { connection[it] } }
+    }
+
+    override fun mset(values: Map<String, String>): CompletableFuture<*> {
+        return queue { values.forEach { (k, v) -> connection[k] = v } }
+    }
+
+    override fun hget(key: String, field: String): CompletableFuture<String?> {
+        return queue { connection.eval(HGET, listOf(key), listOf(field)) as String? }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun hmget(key: String, vararg fields: String): CompletableFuture<List<String?>> {
+        return queue { if (fields.isEmpty()) emptyList() else connection.eval(HMGET, listOf(key), fields.toList()) as List<String?> }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun hgetAll(key: String): CompletableFuture<Map<String, String>> {
+        return queue {
+            val list = connection.eval(HGETALL, listOf(key), emptyList()) as List<String>
+            (list.indices step 2).associate { list[it] to list[it + 1] }
+        }
+    }
+
+    override fun hset(key: String, field: String, value: String): CompletableFuture<Long> {
+        return hset(key, mapOf(field to value))
+    }
+
+    override fun hset(key: String, values: Map<String, String>): CompletableFuture<Long> {
+        return queue { connection.eval(HSET, listOf(key), values.flatMap { listOf(it.key, it.value) }) as Long }
+    }
+
+    override fun sync() {
+        if (commands.isEmpty()) {
+            return
+        }
+        val queued = ArrayList(commands)
+        commands.clear()
+        queued.forEach { it.run() }
+    }
+
+    private fun <T> queue(func: () -> T): CompletableFuture<T> {
+        return Command(func).also { commands += it }.future
+    }
+
+    private class Command<T>(val func: () -> T) {
+
+        val future = CompletableFuture<T>()
+
+        fun run() {
+            try {
+                future.complete(func())
+            } catch (ex: Throwable) {
+                future.completeExceptionally(ex)
+            }
+        }
+    }
+
+    companion object {
+
+        private val HGET = RedisScript("return redis.call('HGET', KEYS[1], ARGV[1])")
+        private val HMGET = RedisScript("return redis.call('HMGET', KEYS[1], unpack(ARGV))")
+        private val HGETALL = RedisScript("return redis.call('HGETALL', KEYS[1])")
+        private val HSET = RedisScript("return redis.call('HSET', KEYS[1], unpack(ARGV))")
+    }
+}
@@ -0,0 +1,121 @@
+package taboolib.expansion
+
+import redis.clients.jedis.Pipeline
+import redis.clients.jedis.Response
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * TabooLib
+ * taboolib.expansion.SingleRedisBatch
+ *
+ * 基于 [Pipeline] 的批处理，所有命令在一次往返中完成
+ */
+class SingleRedisBatch(val connection: SingleRedisConnection) : RedisBatch {
+
+    private val commands = ArrayList<Command<*>>()
+
+    override val size: Int
+        get() = commands.size
+
+    override fun get(key: String): CompletableFuture<String?> {
+        return queue { it.get(key) }
+    }
+
+    override fun set(key: String, value: String?): CompletableFuture<*> {
+        return if (value == null) delete(key) else queue { it.set(key, value) }
+    }
+
+    override fun setEx(key: String, value: String?, seconds: Long, timeUnit: TimeUnit): CompletableFuture<*> {
+        return if (value == null) delete(key) else queue { it.setex(key, timeUnit.toSeconds(seconds), value) }
+    }
+
+    override fun delete(key: String): CompletableFuture<Long> {
+        return queue { it.del(key) }
+    }
+
+    override fun expire(key: String, value: Long, timeUnit: TimeUnit): CompletableFuture<Long> {
+        return queue { it.expire(key, timeUnit.toSeconds(value)) }
+    }
+
+    override fun contains(key: String): CompletableFuture<Boolean> {
+        return queue { it.exists(key) }
+    }
+
+    override fun mget(vararg keys: String): CompletableFuture<List<String?>> {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(emptyList())
+        }
+        return queue { it.mget(*keys) }
+    }
+
+    override fun mset(values: Map<String, String>): CompletableFuture<*> {
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(null)
+        }
+        val args = ArrayList<String>(values.size * 2)
+        values.forEach { (k, v) -> args += k; args += v }
+        return queue { it.mset(*args.toTypedArray()) }
+    }
+
+    override fun hget(key: String, field: String): CompletableFuture<String?> {
+        return queue { it.hget(key, field) }
+    }
+
+    override fun hmget(key: String, vararg fields: String): CompletableFuture<List<String?>> {
+        return queue { it.hmget(key, *fields) }
+    }
+
+    override fun hgetAll(key: String): CompletableFuture<Map<String, String>> {
+        return queue { it.hgetAll(key) }
+    }
+
+    override fun hset(key: String, field: String, value: String): CompletableFuture<Long> {
+        return queue { it.hset(key, field, value) }
+    }
+
+    override fun hset(key: String, values: Map<String, String>): CompletableFuture<Long> {
+        return queue { it.hset(key, values) }
+    }
+
+    override fun sync() {
+        if (commands.isEmpty()) {
+            return
+        }
+        val queued = ArrayList(commands)
+        commands.clear()
+        try {
+            connection.exec { jedis ->
+                val pipeline = jedis.pipelined()
+                queued.forEach { it.send(pipeline) }
+                pipeline.sync()
+            }
+        } catch (ex: Throwable) {
+            queued.forEach { it.future.completeExceptionally(ex) }
+            return
+        }
+        queued.forEach { it.complete() }
+    }
+
+    private fun <T> queue(func: (Pipeline) -> Response<T>): CompletableFuture<T> {
+        return Command(func).also { commands += it }.future
+    }
+
+    private class Command<T>(val func: (Pipeline) -> Response<T>) {
+
+        val future = CompletableFuture<T>()
+        var response: Response<T>? = null
+
+        fun send(pipeline: Pipeline) {
+            response = func(pipeline)
+        }
+
+        fun complete() {
+            try {
+                future.complete(response!!.get())
+            } catch (ex: Throwable) {
+                future.completeExceptionally(ex)
+            }
+        }
+    }
+}
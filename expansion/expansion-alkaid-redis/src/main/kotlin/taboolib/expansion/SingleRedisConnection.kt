@@ -35,7 +35,7 @@ class SingleRedisConnection(internal var pool: JedisPool, internal val connector
 
     private val service: ExecutorService = Executors.newCachedThreadPool()
 
-    private fun <T> exec(loop: Boolean = false, func: (Jedis) -> T): T {
+    internal fun <T> exec(loop: Boolean = false, func: (Jedis) -> T): T {
         return try {
             pool.resource.use { func(it) }
         } catch (ex: JedisConnectionException) {
@@ -67,6 +67,16 @@ class SingleRedisConnection(internal var pool: JedisPool, internal val connector
         }
     }
 
+    override fun evalSha(sha: String, keys: List<String>, args: List<String>): Any? {
+        return exec {
+            it.evalsha(sha, keys, args)
+        }
+    }
+
+    override fun pipeline(): RedisBatch {
+        return SingleRedisBatch(this)
+    }
+
     /**
      * 关闭连接
      */
@@ -88,6 +98,10 @@ class SingleRedisConnection(internal var pool: JedisPool, internal val connector
         exec { if (value == null) it.del(key) else it.setnx(key, value) }
     }
 
+    override fun setEx(key: String, value: String?, seconds: Long, timeUnit: TimeUnit) {
+        exec { if (value == null) it.del(key) else it.setex(key, timeUnit.toSeconds(seconds), value) }
+    }
+
     /**
      * 取值
      *
@@ -2,6 +2,7 @@ package taboolib.expansion.lock
 
 import taboolib.common.platform.function.submit
 import taboolib.expansion.IRedisConnection
+import taboolib.expansion.RedisScript
 
 /**
  *  分布式Lock
@@ -18,13 +19,12 @@ class Lock(val connection: IRedisConnection, lockName: String) {
 
     fun tryLock(): Boolean {
         try {
-            val luaScripts = "if redis.call('setnx',KEYS[1],ARGV[1]) == 1 then redis.call('expire',KEYS[1],ARGV[2]) return 1 else return 0 end"
             val keys: MutableList<String> = ArrayList()
             val values: MutableList<String> = ArrayList()
             keys.add(lockName)
             values.add(LOCKED)
             values.add(internalLockLeaseTime.toString())
-            connection.eval(luaScripts, keys, values)?.let {
+            connection.eval(TRY_LOCK, keys, values)?.let {
                 if (it == 1L) {
                     start = true
                     watchDog = true
@@ -40,10 +40,7 @@ class Lock(val connection: IRedisConnection, lockName: String) {
 
     fun unlock() {
         try {
-            val luaScript = "if redis.call('get',KEYS[1]) == false then return 1 " +
-                    "elseif redis.call('get',KEYS[1]) == ARGV[1] then " +
-                    "return redis.call('del',KEYS[1]) else return 2 end"
-            val eval = connection.eval(luaScript, listOf(lockName), listOf(LOCKED))?.toString()
+            val eval = connection.eval(UNLOCK, listOf(lockName), listOf(LOCKED))?.toString()
             if (eval != "1") {
                 throw RuntimeException("解锁失败,key:$lockName")
             }
@@ -59,11 +56,12 @@ class Lock(val connection: IRedisConnection, lockName: String) {
         }
         try {
             submit(async = true, period = 20) {
-                if (!connection.contains(lockName) || !watchDog) {
+                if (!watchDog) {
                     cancel()
+                    return@submit
                 }
-                val luaScript = "if redis.call('get',KEYS[1]) == ARGV[1] then return redis.call('expire',KEYS[1],ARGV[2]) else return 0 end"
-                val eval = connection.eval(luaScript, listOf(lockName), listOf(LOCKED, internalLockLeaseTime.toString()))?.toString()
+                // 锁不存在时脚本返回 0，无需额外检查
+                val eval = connection.eval(EXTEND, listOf(lockName), listOf(LOCKED, internalLockLeaseTime.toString()))?.toString()
                 if (eval != "1") {
                     cancel()
                 }
@@ -82,5 +80,15 @@ class Lock(val connection: IRedisConnection, lockName: String) {
 
         private const val LOCKED = "TRUE"
 
+        private val TRY_LOCK = RedisScript("if redis.call('setnx',KEYS[1],ARGV[1]) == 1 then redis.call('expire',KEYS[1],ARGV[2]) return 1 else return 0 end")
+
+        private val UNLOCK = RedisScript(
+            "if redis.call('get',KEYS[1]) == false then return 1 " +
+                    "elseif redis.call('get',KEYS[1]) == ARGV[1] then " +
+                    "return redis.call('del',KEYS[1]) else return 2 end"
+        )
+
+        private val EXTEND = RedisScript("if redis.call('get',KEYS[1]) == ARGV[1] then return redis.call('expire',KEYS[1],ARGV[2]) else return 0 end")
+
     }
 }
@@ -1,8 +1,10 @@
 package taboolib.expansion
 
+import taboolib.module.database.DatabaseExecutor
 import taboolib.module.database.Filter
 import taboolib.module.database.Table
 import java.util.*
+import java.util.concurrent.CompletableFuture
 import javax.sql.DataSource
 
 /**
@@ -18,6 +20,17 @@ abstract class ContainerOperator {
 
     abstract val dataSource: DataSource
 
+    /**
+     * 在数据库线程中执行操作，线程数量与连接池大小一致
+     *
+     * ```
+     * container.async { get(uniqueId) }.onMainThread().thenAccept { ... }
+     * ```
+     */
+    fun <T> async(block: ContainerOperator.() -> T): CompletableFuture<T> {
+        return DatabaseExecutor.of(dataSource).submit { block(this) }
+    }
+
     abstract fun keys(uniqueId: UUID): List<String>
 
     abstract operator fun get(uniqueId: UUID): Map<String, Any?>
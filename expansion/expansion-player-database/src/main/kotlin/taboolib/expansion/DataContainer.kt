@@ -1,8 +1,5 @@
 package taboolib.expansion
 
-import taboolib.common.Inject
-import taboolib.common.platform.Schedule
-import taboolib.common.platform.function.submitAsync
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
 
@@ -16,6 +13,8 @@ import java.util.concurrent.TimeUnit
 class DataContainer(val user: String, val database: Database) {
 
     val source = database[user]
+
+    /** 待写入的键及其最早写入时间，由 [DataFlusher] 统一写入 */
     val updateMap = ConcurrentHashMap<String, Long>()
 
     operator fun set(key: String, value: Any) {
@@ -25,7 +24,7 @@ class DataContainer(val user: String, val database: Database) {
 
     fun setDelayed(key: String, value: Any, delay: Long = 3L, timeUnit: TimeUnit = TimeUnit.SECONDS) {
         source[key] = value.toString()
-        updateMap[key] = System.currentTimeMillis() - timeUnit.toMillis(delay)
+        DataFlusher.mark(this, key, System.currentTimeMillis() + timeUnit.toMillis(delay))
     }
 
     operator fun get(key: String): String? {
@@ -44,27 +43,16 @@ class DataContainer(val user: String, val database: Database) {
         return source.size
     }
 
+    /** 标记待写入，将在下一个写入窗口中与其他数据一并写入 */
     fun save(key: String) {
-        submitAsync { database[user, key] = source[key]!! }
+        DataFlusher.mark(this, key)
     }
 
+    /** 数据由 [DataFlusher] 定时异步写入，无需手动检查，保留该方法以兼容旧版本 */
     fun checkUpdate() {
-        updateMap.filterValues { it < System.currentTimeMillis() }.forEach { (t, _) ->
-            updateMap.remove(t)
-            save(t)
-        }
     }
 
     override fun toString(): String {
         return "DataContainer(user='$user', source=$source)"
     }
-
-    @Inject
-    internal companion object {
-
-        @Schedule(period = 20)
-        private fun checkUpdate() {
-            playerDataContainer.values.forEach { it.checkUpdate() }
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package taboolib.expansion
+
+import taboolib.common.Inject
+import taboolib.common.platform.Schedule
+import taboolib.common.platform.function.warning
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * TabooLib
+ * taboolib.expansion.DataFlusher
+ *
+ * 全局数据写入器
+ *
+ * 所有 [DataContainer] 的写入只会标记为待写入（用户 + 键），相同键的多次写入会被合并。
+ * 每个写入窗口（1 秒）内的所有待写入数据按数据库分组，以一次批量查询、一次批量插入与一次批量更新的方式写入。
+ * 写入失败的数据会重新标记，在 [RETRY_DELAY] 后重试（若期间没有新的写入）。
+ * 插件关闭时，所有数据会在数据库连接池关闭之前写入。
+ */
+@Inject
+object DataFlusher {
+
+    /** 写入失败后重试的等待时间（毫秒） */
+    const val RETRY_DELAY = 5000L
+
+    init {
+        // 在关闭数据库连接池之前写入所有数据
+        taboolib.module.database.Database.prepareClose { flush(force = true) }
+    }
+
+    /** 存在待写入数据的容器 */
+    private val dirtyContainers = ConcurrentHashMap.newKeySet<DataContainer>()
+
+    private val requested = AtomicLong()
+    private val coalesced = AtomicLong()
+    private val written = AtomicLong()
+
+    /** 写入请求次数 */
+    val writesRequested: Long
+        get() = requested.get()
+
+    /** 被合并的写入次数（相同键在写入前被多次修改） */
+    val writesCoalesced: Long
+        get() = coalesced.get()
+
+    /** 实际写入数据库的行数 */
+    val writesExecuted: Long
+        get() = written.get()
+
+    /**
+     * 标记待写入
+     *
+     * @param time 最早的写入时间
+     */
+    fun mark(container: DataContainer, key: String, time: Long = 0) {
+        requested.incrementAndGet()
+        var merged = false
+        container.updateMap.merge(key, time) { old, new ->
+            merged = true
+            minOf(old, new)
+        }
+        if (merged) {
+            coalesced.incrementAndGet()
+        }
+        dirtyContainers += container
+    }
+
+    /**
+     * 写入所有到期的数据
+     *
+     * @param force 是否忽略写入时间，写入所有数据
+     */
+    @Synchronized
+    fun flush(force: Boolean = false) {
+        if (dirtyContainers.isEmpty()) {
+            return
+        }
+        val now = System.currentTimeMillis()
+        val batches = HashMap<Database, MutableList<Pair<DataContainer, Database.Entry>>>()
+        val iterator = dirtyContainers.iterator()
+        while (iterator.hasNext()) {
+            val container = iterator.next()
+            container.updateMap.forEach { (key, time) ->
+                if (force || time <= now) {
+                    // 仅在标记未被更新时移除
+                    if (container.updateMap.remove(key, time)) {
+                        val value = container.source[key] ?: return@forEach
+                        batches.getOrPut(container.database) { ArrayList() } += container to Database.Entry(container.user, key, value)
+                    }
+                }
+            }
+            if (container.updateMap.isEmpty()) {
+                iterator.remove()
+                // 移除期间可能有新的标记
+                if (container.updateMap.isNotEmpty()) {
+                    dirtyContainers += container
+                }
+            }
+        }
+        batches.forEach { (database, entries) ->
+            try {
+                database.setAll(entries.map { it.second })
+                written.addAndGet(entries.size.toLong())
+            } catch (ex: Throwable) {
+                warning("Failed to save ${entries.size} entries, retry in ${RETRY_DELAY}ms")
+                ex.printStackTrace()
+                // 重新标记，已有更新的标记时保留原标记
+                entries.forEach { (container, entry) ->
+                    container.updateMap.putIfAbsent(entry.key, now + RETRY_DELAY)
+                    dirtyContainers += container
+                }
+            }
+        }
+    }
+
+    @Schedule(async = true, period = 20)
+    private fun onFlush() {
+        flush()
+    }
+}
@@ -1,5 +1,9 @@
 package taboolib.expansion
 
+import taboolib.module.database.ActionInsert
+import taboolib.module.database.ActionSelect
+import taboolib.module.database.ActionUpdate
+import taboolib.module.database.use
 import java.util.concurrent.ConcurrentHashMap
 import javax.sql.DataSource
 
@@ -38,4 +42,87 @@ class Database(val type: Type, val dataSource: DataSource = type.host().createDa
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量写入
+     * 在同一个事务中先以一次查询获取已存在的数据，已存在的数据以一次批量更新写入，其余数据以一次批量插入写入
+     * （表中没有 user + key 的唯一索引，因此无法使用 ON DUPLICATE KEY UPDATE / ON CONFLICT）
+     */
+    @Suppress("SqlSourceToSinkFlow")
+    fun setAll(entries: List<Entry>) {
+        if (entries.isEmpty()) {
+            return
+        }
+        val table = type.tableVar()
+        val users = entries.map { it.user }.distinct()
+        val keys = entries.map { it.key }.distinct()
+        // 查询已存在的数据（不根据批量更新的返回值判断，部分驱动配置下返回值不可靠）
+        val select = ActionSelect(table.name).apply {
+            rows("user", "key")
+            where("user" inside users.toTypedArray<Any>() and ("key" inside keys.toTypedArray<Any>()))
+        }
+        val update = ActionUpdate(table.name).apply {
+            set("value", "")
+            where("user" eq "" and ("key" eq ""))
+        }
+        val insert = ActionInsert(table.name, arrayOf("user", "key", "value")).apply { value("", "", "") }
+        val connection = dataSource.connection
+        try {
+            val autoCommit = connection.autoCommit
+            connection.autoCommit = false
+            try {
+                // 查询结果为 users × keys 的子集，按实际写入的数据区分插入与更新
+                val exists = HashSet<Pair<String, String>>()
+                connection.prepareStatement(select.query).use { statement ->
+                    select.elements.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
+                    statement.executeQuery().use { result ->
+                        while (result.next()) {
+                            exists += result.getString("user") to result.getString("key")
+                        }
+                    }
+                }
+                val updates = ArrayList<Entry>()
+                val inserts = ArrayList<Entry>()
+                entries.forEach {
+                    // 同一批次中重复的新数据只插入一次，其余作为更新
+                    if (exists.add(it.user to it.key)) inserts += it else updates += it
+                }
+                // 批量插入
+                if (inserts.isNotEmpty()) {
+                    connection.prepareStatement(table.templates.getQuery(insert)).use { statement ->
+                        inserts.forEach {
+                            statement.setString(1, it.user)
+                            statement.setString(2, it.key)
+                            statement.setString(3, it.value)
+                            statement.addBatch()
+                        }
+                        statement.executeBatch()
+                    }
+                }
+                // 批量更新
+                if (updates.isNotEmpty()) {
+                    connection.prepareStatement(table.templates.getQuery(update)).use { statement ->
+                        updates.forEach {
+                            statement.setString(1, it.value)
+                            statement.setString(2, it.user)
+                            statement.setString(3, it.key)
+                            statement.addBatch()
+                        }
+                        statement.executeBatch()
+                    }
+                }
+                connection.commit()
+            } catch (ex: Throwable) {
+                connection.rollback()
+                throw ex
+            } finally {
+                connection.autoCommit = autoCommit
+            }
+        } finally {
+            connection.close()
+        }
+    }
+
+    /** 待写入的数据 */
+    class Entry(val user: String, val key: String, val value: String)
+}
@@ -0,0 +1,61 @@
+import java.net.URI
+import java.nio.file.FileSystems
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+
+// 在插件构建时生成 TabooLib 类索引（META-INF/taboolib/classes.index）并写入插件文件
+// 运行时 VisitorHandler 与 PlatformFactory 读取该索引，避免遍历并加载插件文件中的每一个类
+//
+// 使用方式（插件项目的 build.gradle.kts）：
+//   apply(from = "<TabooLib>/gradle/class-index.gradle.kts")
+//
+// 可选属性（gradle.properties 或 -P）：
+//   classIndex.groupId       插件的根包名，默认为 project.group
+//   classIndex.taboolibPath  TabooLib 被重定向后的包名，默认为 <groupId>.taboolib
+//   classIndex.archiveTask   生成插件文件的任务，默认为 shadowJar
+//   classIndex.version       TabooLib 版本，默认为 6.1.0
+
+val classIndexGroupId = findProperty("classIndex.groupId")?.toString() ?: project.group.toString()
+val classIndexTaboolibPath = findProperty("classIndex.taboolibPath")?.toString() ?: "$classIndexGroupId.taboolib"
+val classIndexArchiveTask = findProperty("classIndex.archiveTask")?.toString() ?: "shadowJar"
+val classIndexVersion = findProperty("classIndex.version")?.toString() ?: "6.1.0"
+
+val classIndex: Configuration by configurations.creating
+
+dependencies {
+    listOf("common", "common-util").forEach { module ->
+        if (rootProject.findProject(":$module") != null) {
+            classIndex(project(":$module"))
+        } else {
+            classIndex("io.izzel.taboolib:$module:$classIndexVersion")
+        }
+    }
+}
+
+val generateClassIndex by tasks.registering(JavaExec::class) {
+    group = "taboolib"
+    description = "Generates META-INF/taboolib/classes.index and writes it into the plugin archive."
+    val archive = tasks.named<AbstractArchiveTask>(classIndexArchiveTask)
+    val output = layout.buildDirectory.file("taboolib/classes.index")
+    dependsOn(archive)
+    classpath = classIndex
+    mainClass.set("taboolib.common.inject.ClassIndex")
+    inputs.file(archive.flatMap { it.archiveFile })
+    outputs.file(output)
+    doFirst {
+        output.get().asFile.parentFile.mkdirs()
+        args(archive.get().archiveFile.get().asFile.absolutePath, output.get().asFile.absolutePath, classIndexGroupId, classIndexTaboolibPath)
+    }
+    doLast {
+        val jar = archive.get().archiveFile.get().asFile
+        FileSystems.newFileSystem(URI.create("jar:" + jar.toURI()), emptyMap<String, Any>()).use { fs ->
+            val target = fs.getPath("META-INF/taboolib/classes.index")
+            Files.createDirectories(target.parent)
+            Files.copy(output.get().asFile.toPath(), target, StandardCopyOption.REPLACE_EXISTING)
+        }
+    }
+}
+
+tasks.named("build") {
+    dependsOn(generateClassIndex)
+}
@@ -87,6 +87,10 @@ class ConfigLoader : ClassVisitor(1) {
         }
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(Config::class.java)
+    }
+
     override fun getLifeCycle(): LifeCycle {
         return LifeCycle.INIT
     }
@@ -47,6 +47,10 @@ class ConfigNodeLoader : ClassVisitor(2) {
         }
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(ConfigNode::class.java)
+    }
+
     override fun getLifeCycle(): LifeCycle {
         return LifeCycle.INIT
     }
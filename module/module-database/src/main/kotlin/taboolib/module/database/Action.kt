@@ -27,4 +27,17 @@ interface Action : Attributes {
      * 执行上面那个回调函数（内部用）
      */
     fun callFinally(preparedStatement: PreparedStatement, connection: Connection)
+
+    /**
+     * 是否设置了回调函数
+     */
+    val hasFinally: Boolean
+        get() = false
+
+    /**
+     * 语句结构（不包含占位符的值），结构相同的行为总是生成相同的语句
+     * 用于 [SqlTemplateCache] 缓存语句，返回 null 表示不缓存
+     */
+    val shape: Any?
+        get() = null
 }
\ No newline at end of file
@@ -15,6 +15,10 @@ class ActionDelete(val table: String) : ActionFilterable() {
             .addFilter(filter)
             .build()
 
+    /** 语句结构 */
+    override val shape: Any
+        get() = listOf("DELETE", table, filterShape)
+
     /** 元素 */
     override val elements: List<Any>
         get() = filter?.elements ?: emptyList()
@@ -45,6 +45,13 @@ abstract class ActionFilterable : Filterable(), Action {
         }
     }
 
+    /** 过滤器的结构 */
+    protected val filterShape: List<String>
+        get() = filter?.criteria?.map { it.query } ?: emptyList()
+
+    override val hasFinally: Boolean
+        get() = finallyCallback != null
+
     override fun append(criteria: Criteria) {
     }
 
@@ -45,6 +45,13 @@ class ActionInsert(val table: String, val keys: Array<String>) : Action {
             return el
         }
 
+    /** 语句结构 */
+    override val shape: Any
+        get() = listOf("INSERT", table, keys.toList(), values.map { it.size }, duplicateUpdate.map { it.query })
+
+    override val hasFinally: Boolean
+        get() = finallyCallback != null
+
     /** 插入值 */
     fun value(vararg args: Any) {
         values.add(arrayOf(*args))
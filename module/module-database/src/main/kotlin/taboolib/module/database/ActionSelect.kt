@@ -69,6 +69,22 @@ class ActionSelect(val table: String) : ActionFilterable() {
             return el
         }
 
+    /** 语句结构 */
+    override val shape: Any
+        get() = listOf(
+            "SELECT",
+            table,
+            rows.toList(),
+            distincts.toList(),
+            join.map { listOf(it.joinType, it.tableName, it.filter.criteria.map { c -> c.query }) },
+            filterShape,
+            group.values.toList(),
+            group.rollup,
+            order.map { listOf(it.row, it.type, it.castType) },
+            sum.map { listOf(it.row, it.asRow, it.truncate) },
+            limit
+        )
+
     /**
      * 选择并返回表中关于 [row] 的所有数据，与 [distincts] 互斥
      */
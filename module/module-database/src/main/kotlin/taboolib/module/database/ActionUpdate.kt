@@ -32,6 +32,10 @@ class ActionUpdate(val table: String) : ActionFilterable() {
             return el
         }
 
+    /** 语句结构 */
+    override val shape: Any
+        get() = listOf("UPDATE", table, operations.map { it.query }, filterShape)
+
     /** 设置 */
     fun set(key: String, value: Any?) {
         operations += when (value) {
@@ -0,0 +1,76 @@
+package taboolib.module.database
+
+import java.sql.ResultSet
+import java.util.concurrent.CompletableFuture
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.AsyncTable
+ *
+ * 数据表的异步操作，所有操作在 [DatabaseExecutor] 中执行并返回 [CompletableFuture]
+ *
+ * ```
+ * table.async(dataSource).select({ where("name" eq "sky") }) {
+ *     getInt("data")
+ * }.onMainThread().thenAccept { data ->
+ *     // 主线程
+ * }
+ * ```
+ *
+ * 需要注意的是，[ResultProcessorList] 必须在数据库线程中处理，因此查询结果应当通过 [select] 或 [selectAndProcess] 的回调读取。
+ *
+ * @param timeout 超时时间（单位：毫秒，0 表示不限制）
+ */
+class AsyncTable(
+    val table: Table<*, *>,
+    val dataSource: DataSource,
+    val executor: DatabaseExecutor = DatabaseExecutor.of(dataSource),
+    val timeout: Long = executor.timeout,
+) {
+
+    /** 查询并在数据库线程中处理结果 */
+    fun <R> selectAndProcess(func: ActionSelect.() -> Unit, process: ResultProcessorList.() -> R): CompletableFuture<R> {
+        return executor.submit(timeout) { process(table.select(dataSource, func)) }
+    }
+
+    /** 查询并返回所有结果 */
+    fun <R> select(func: ActionSelect.() -> Unit, mapper: ResultSet.() -> R): CompletableFuture<List<R>> {
+        return selectAndProcess(func) { map(mapper) }
+    }
+
+    /** 查询是否存在 */
+    fun find(func: ActionSelect.() -> Unit): CompletableFuture<Boolean> {
+        return executor.submit(timeout) { table.find(dataSource, func) }
+    }
+
+    /** 更新数据 */
+    fun update(func: ActionUpdate.() -> Unit): CompletableFuture<Int> {
+        return executor.submit(timeout) { table.update(dataSource, func) }
+    }
+
+    /** 删除数据 */
+    fun delete(func: ActionDelete.() -> Unit): CompletableFuture<Int> {
+        return executor.submit(timeout) { table.delete(dataSource, func) }
+    }
+
+    /** 插入数据 */
+    fun insert(vararg keys: String, func: ActionInsert.() -> Unit): CompletableFuture<Int> {
+        return executor.submit(timeout) { table.insert(dataSource, *keys, func = func) }
+    }
+
+    /** 插入数据 */
+    fun insert(keys: List<String>, func: ActionInsert.() -> Unit): CompletableFuture<Int> {
+        return executor.submit(timeout) { table.insert(dataSource, keys, func) }
+    }
+
+    /** 事务，失败时以异常完成 */
+    fun transaction(func: ExecutableSource.() -> Unit): CompletableFuture<Unit> {
+        return executor.submit(timeout) { table.transaction(dataSource, func).getOrThrow() }
+    }
+
+    /** 在数据库线程中执行任意操作 */
+    fun <R> supply(block: Table<*, *>.() -> R): CompletableFuture<R> {
+        return executor.submit(timeout) { block(table) }
+    }
+}
@@ -0,0 +1,118 @@
+package taboolib.module.database
+
+import com.zaxxer.hikari.HikariDataSource
+import taboolib.common.platform.function.submit
+import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicInteger
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.DatabaseExecutor
+ *
+ * 数据库专用线程池
+ *
+ * 线程数量与连接池大小一致，等待队列有上限（[queueCapacity]），队列已满时新的任务将以
+ * [RejectedExecutionException] 失败，而不是无限堆积或阻塞调用方（通常是主线程）。
+ *
+ * @param poolSize 线程数量
+ * @param queueCapacity 等待队列容量
+ * @param timeout 默认超时时间（单位：毫秒，0 表示不限制）
+ */
+class DatabaseExecutor(val poolSize: Int, val queueCapacity: Int = poolSize * 64, val timeout: Long = 30000) {
+
+    private val threadId = AtomicInteger()
+
+    private val executor = ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, ArrayBlockingQueue(queueCapacity)) { runnable ->
+        Thread(runnable, "TabooLib-Database-${threadId.incrementAndGet()}").also { it.isDaemon = true }
+    }.also { it.allowCoreThreadTimeOut(true) }
+
+    /** 等待中的任务数量 */
+    val queueSize: Int
+        get() = executor.queue.size
+
+    /** 执行中的任务数量 */
+    val activeCount: Int
+        get() = executor.activeCount
+
+    /**
+     * 提交任务
+     *
+     * @param timeout 超时时间（单位：毫秒，0 表示不限制），超时后任务将被中断
+     */
+    fun <T> submit(timeout: Long = this.timeout, block: () -> T): CompletableFuture<T> {
+        val future = CompletableFuture<T>()
+        val task = try {
+            executor.submit(Runnable {
+                try {
+                    future.complete(block())
+                } catch (ex: Throwable) {
+                    future.completeExceptionally(ex)
+                }
+            })
+        } catch (ex: RejectedExecutionException) {
+            future.completeExceptionally(ex)
+            return future
+        }
+        if (timeout > 0) {
+            val timer = scheduler.schedule(Runnable {
+                if (future.completeExceptionally(TimeoutException("Database task timed out after ${timeout}ms"))) {
+                    task.cancel(true)
+                }
+            }, timeout, TimeUnit.MILLISECONDS)
+            future.whenComplete { _, _ -> timer.cancel(false) }
+        }
+        return future
+    }
+
+    /** 关闭线程池，等待已提交的任务完成 */
+    fun shutdown() {
+        executor.shutdown()
+        executor.awaitTermination(10, TimeUnit.SECONDS)
+    }
+
+    companion object {
+
+        /** 超时计时器 */
+        private val scheduler = Executors.newSingleThreadScheduledExecutor { runnable ->
+            Thread(runnable, "TabooLib-Database-Timer").also { it.isDaemon = true }
+        }
+
+        /** 各个连接池对应的线程池 */
+        private val executors = ConcurrentHashMap<DataSource, DatabaseExecutor>()
+
+        init {
+            Database.prepareClose {
+                executors.values.forEach { it.shutdown() }
+                executors.clear()
+            }
+        }
+
+        /**
+         * 获取连接池对应的线程池，线程数量与连接池大小一致
+         */
+        fun of(dataSource: DataSource): DatabaseExecutor {
+            return executors.computeIfAbsent(dataSource) {
+                DatabaseExecutor(if (it is HikariDataSource) it.maximumPoolSize.coerceAtLeast(1) else 4)
+            }
+        }
+    }
+}
+
+/**
+ * 在主线程中处理结果
+ * 返回一个新的 CompletableFuture，在原任务完成后于主线程中完成
+ */
+fun <T> CompletableFuture<T>.onMainThread(): CompletableFuture<T> {
+    val future = CompletableFuture<T>()
+    whenComplete { value, ex ->
+        submit {
+            if (ex != null) {
+                future.completeExceptionally(ex)
+            } else {
+                future.complete(value)
+            }
+        }
+    }
+    return future
+}
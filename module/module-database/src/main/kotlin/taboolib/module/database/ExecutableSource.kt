@@ -2,6 +2,7 @@ package taboolib.module.database
 
 import taboolib.common.platform.function.warning
 import taboolib.common.util.unsafeLazy
+import java.sql.PreparedStatement
 import java.sql.ResultSet
 import java.sql.SQLException
 import java.sql.Statement
@@ -14,8 +15,15 @@ import javax.sql.DataSource
 @Suppress("SqlSourceToSinkFlow")
 open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource, val transaction: Boolean) {
 
+    /** 读取自增主键时使用的模式，仅在插入行为设置了回调函数时生效 */
     var autoGeneratedKeys = Statement.RETURN_GENERATED_KEYS
 
+    /** 是否在该连接中复用相同语句的 PreparedStatement，将在连接关闭时一并释放 */
+    var reuseStatements = false
+
+    /** 已准备的语句 */
+    private val statements = HashMap<String, PreparedStatement>()
+
     /** 结果处理器 */
     internal val processors = ArrayList<ResultProcessor>()
 
@@ -37,31 +45,31 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
     /** 选择数据 */
     open fun select(func: ActionSelect.() -> Unit) {
         val action = ActionSelect(table.name).also(func)
-        executeQuery(action.query, action)
+        executeQuery(table.templates.getQuery(action), action)
     }
 
     /** 更新数据 */
     open fun update(func: ActionUpdate.() -> Unit = {}) {
         val action = ActionUpdate(table.name).also(func)
-        executeUpdate(action.query, action)
+        executeUpdate(table.templates.getQuery(action), action)
     }
 
     /** 删除数据 */
     open fun delete(func: ActionDelete.() -> Unit = {}) {
         val action = ActionDelete(table.name).also(func)
-        executeUpdate(action.query, action)
+        executeUpdate(table.templates.getQuery(action), action)
     }
 
     /** 插入数据 */
     open fun insert(vararg keys: String, func: ActionInsert.() -> Unit = {}) {
         val action = ActionInsert(table.name, arrayOf(*keys)).also(func)
-        executeUpdate(action.query, action)
+        executeUpdate(table.templates.getQuery(action), action)
     }
 
     /** 插入数据 */
     open fun insert(keys: List<String>, func: ActionInsert.() -> Unit = {}) {
         val action = ActionInsert(table.name, keys.toTypedArray()).also(func)
-        executeUpdate(action.query, action)
+        executeUpdate(table.templates.getQuery(action), action)
     }
 
     /** 执行查询语句 */
@@ -70,7 +78,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
 
             override fun <C> invoke(func: ResultSet.() -> C): C {
                 return try {
-                    connection.prepareStatement(query, autoGeneratedKeys).use { statement ->
+                    prepareStatement(query, action) { statement ->
                         action?.elements?.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
                         statement.executeQuery().use { func(it) }.also { action?.callFinally(statement, connection) }
                     }
@@ -87,7 +95,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
     open fun executeUpdate(query: String, action: Action? = null): ResultProcessor {
         return ResultProcessor.Update(query) {
             try {
-                connection.prepareStatement(query, autoGeneratedKeys).use { statement ->
+                prepareStatement(query, action) { statement ->
                     action?.elements?.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
                     statement.executeUpdate().also { action?.callFinally(statement, connection) }
                 }
@@ -99,6 +107,33 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
         }.also { processors += it }
     }
 
+    /**
+     * 准备语句
+     * 只有设置了回调函数的插入行为才会请求自增主键
+     */
+    @Suppress("SqlSourceToSinkFlow")
+    protected open fun <T> prepareStatement(query: String, action: Action?, func: (PreparedStatement) -> T): T {
+        val keys = if (action is ActionInsert && action.hasFinally) autoGeneratedKeys else Statement.NO_GENERATED_KEYS
+        if (!reuseStatements || keys != Statement.NO_GENERATED_KEYS) {
+            return connection.prepareStatement(query, keys).use(func)
+        }
+        val statement = statements.getOrPut(query) { connection.prepareStatement(query) }
+        statement.clearParameters()
+        return func(statement)
+    }
+
+    /** 释放已准备的语句 */
+    private fun releaseStatements() {
+        statements.values.forEach {
+            try {
+                it.close()
+            } catch (ex: Throwable) {
+                ex.printStackTrace()
+            }
+        }
+        statements.clear()
+    }
+
     /**
      * 保存更改，需要启用事务模式
      * 如果保存失败则会回滚
@@ -121,6 +156,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
                 }
                 Result.failure(e)
             } finally {
+                releaseStatements()
                 connection.close()
             }
         } else {
@@ -132,6 +168,7 @@ open class ExecutableSource(val table: Table<*, *>, var dataSource: DataSource,
      * 关闭链接
      */
     open fun close() {
+        releaseStatements()
         connection.close()
     }
 
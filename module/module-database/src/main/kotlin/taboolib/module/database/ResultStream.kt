@@ -0,0 +1,129 @@
+package taboolib.module.database
+
+import taboolib.common.platform.function.warning
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import java.sql.SQLException
+import java.util.Spliterator
+import java.util.Spliterators
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.ResultStream
+ *
+ * 流式结果
+ *
+ * 以游标的方式逐行读取查询结果，不会将整个结果集读入内存，适用于遍历大表（排行榜、数据迁移等）。
+ * 连接在结果读取完毕或调用 [close] 时释放，因此未读取完毕时必须手动关闭：
+ *
+ * ```
+ * table.stream(dataSource) {
+ *     rows("name", "data")
+ * }.use { stream ->
+ *     stream.sequence { getString("name") }.forEach { ... }
+ * }
+ * ```
+ *
+ * @param fetchSize 每次从数据库中读取的行数
+ * @param streaming 是否启用 MySQL 流式读取（逐行读取，忽略 [fetchSize]）
+ */
+class ResultStream(
+    val query: String,
+    val action: Action,
+    val dataSource: DataSource,
+    val fetchSize: Int = 1000,
+    val streaming: Boolean = false,
+) : AutoCloseable {
+
+    private var connection: Connection? = null
+    private var statement: PreparedStatement? = null
+    private var resultSet: ResultSet? = null
+
+    /** 是否已关闭 */
+    var isClosed = false
+        private set
+
+    /** 是否已经执行 */
+    var isExecuted = false
+        private set
+
+    /**
+     * 以序列的方式读取结果（只能读取一次）
+     */
+    fun <T> sequence(mapper: ResultSet.() -> T): Sequence<T> {
+        val resultSet = open()
+        return Sequence {
+            object : Iterator<T> {
+
+                var ready = false
+                var hasNext = false
+
+                override fun hasNext(): Boolean {
+                    if (!ready) {
+                        hasNext = !isClosed && resultSet.next()
+                        ready = true
+                        // 读取完毕后立即释放连接
+                        if (!hasNext) {
+                            close()
+                        }
+                    }
+                    return hasNext
+                }
+
+                override fun next(): T {
+                    if (!hasNext()) {
+                        throw NoSuchElementException()
+                    }
+                    ready = false
+                    return mapper(resultSet)
+                }
+            }
+        }.constrainOnce()
+    }
+
+    /**
+     * 以 Java Stream 的方式读取结果（只能读取一次），关闭 Stream 时释放连接
+     */
+    fun <T> stream(mapper: ResultSet.() -> T): Stream<T> {
+        val iterator = sequence(mapper).iterator()
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false).onClose { close() }
+    }
+
+    /**
+     * 执行查询
+     */
+    @Suppress("SqlSourceToSinkFlow")
+    private fun open(): ResultSet {
+        if (isExecuted) {
+            error("stream is already executed: $query")
+        }
+        isExecuted = true
+        try {
+            val conn = dataSource.connection.also { connection = it }
+            val stat = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).also { statement = it }
+            // MySQL 仅在 fetchSize 为 Integer.MIN_VALUE 时逐行读取
+            stat.fetchSize = if (streaming) Int.MIN_VALUE else fetchSize
+            action.elements.forEachIndexed { index, any -> stat.setObject(index + 1, any) }
+            return stat.executeQuery().also { resultSet = it }
+        } catch (ex: SQLException) {
+            close()
+            warning("Query: $query")
+            warning("Parameters (${action.elements.size}): ${action.elements}")
+            throw ex
+        }
+    }
+
+    override fun close() {
+        if (isClosed) {
+            return
+        }
+        isClosed = true
+        runCatching { resultSet?.close() }
+        runCatching { statement?.close() }
+        connection?.close()
+    }
+}
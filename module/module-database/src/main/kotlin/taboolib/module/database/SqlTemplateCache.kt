@@ -0,0 +1,59 @@
+package taboolib.module.database
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * TabooLib
+ * taboolib.module.database.SqlTemplateCache
+ *
+ * 语句模板缓存
+ *
+ * 以行为的结构（[Action.shape]，包括列、过滤条件、排序、数量限制等，不包括占位符的值）作为键，
+ * 结构相同的行为直接复用已生成的语句，跳过语句拼接。
+ *
+ * @param maxSize 最大缓存数量
+ */
+class SqlTemplateCache(val maxSize: Int = 256) {
+
+    private val cache = object : LinkedHashMap<Any, String>(16, 0.75f, true) {
+
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Any, String>?): Boolean {
+            return size > maxSize
+        }
+    }
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    /** 命中次数 */
+    val hitCount: Long
+        get() = hits.get()
+
+    /** 未命中次数 */
+    val missCount: Long
+        get() = misses.get()
+
+    /** 缓存数量 */
+    val size: Int
+        get() = synchronized(cache) { cache.size }
+
+    /**
+     * 获取行为对应的语句
+     */
+    fun getQuery(action: Action): String {
+        val shape = action.shape ?: return action.query
+        synchronized(cache) { cache[shape] }?.let {
+            hits.incrementAndGet()
+            return it
+        }
+        misses.incrementAndGet()
+        val query = action.query
+        synchronized(cache) { cache[shape] = query }
+        return query
+    }
+
+    /** 清空缓存 */
+    fun clear() {
+        synchronized(cache) { cache.clear() }
+    }
+}
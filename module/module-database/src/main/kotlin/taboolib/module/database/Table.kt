@@ -1,5 +1,6 @@
 package taboolib.module.database
 
+import java.sql.ResultSet
 import javax.sql.DataSource
 
 /**
@@ -15,6 +16,9 @@ open class Table<T : Host<E>, E : ColumnBuilder>(val name: String, val host: Hos
     val columns = ArrayList<Column>()
     val primaryKeyForLegacy = ArrayList<String>()
 
+    /** 语句模板缓存 */
+    val templates = SqlTemplateCache()
+
     init {
         func(this)
     }
@@ -56,6 +60,63 @@ open class Table<T : Host<E>, E : ColumnBuilder>(val name: String, val host: Hos
         return workspace(dataSource) { insert(keys) { func(this) } }.run()
     }
 
+    /**
+     * # 流式查询
+     *
+     * 以游标的方式逐行读取结果，不会将整个结果集读入内存。
+     * MySQL 数据库下默认启用流式读取，连接在结果读取完毕或关闭时释放。
+     *
+     * ```
+     * table.stream(dataSource) {
+     *     rows("name", "data")
+     * }.use { stream ->
+     *     stream.sequence { getString("name") }.forEach { ... }
+     * }
+     * ```
+     *
+     * @param fetchSize 每次从数据库中读取的行数
+     * @param streaming 是否启用 MySQL 流式读取
+     */
+    open fun stream(dataSource: DataSource, fetchSize: Int = 1000, streaming: Boolean = host is HostSQL, func: ActionSelect.() -> Unit): ResultStream {
+        val action = ActionSelect(name).also(func)
+        return ResultStream(templates.getQuery(action), action, dataSource, fetchSize, streaming)
+    }
+
+    /**
+     * # 键集分页查询
+     *
+     * 按照 [key] 排序并分页读取，每页通过 `key > 上一页最后的值` 定位，而不是使用 OFFSET。
+     * 每页使用独立的连接，适合在遍历过程中执行其他操作的场景。查询结果中必须包含 [key] 列。
+     *
+     * ```
+     * table.keyset(dataSource, "id", mapper = { getString("name") }).forEach { ... }
+     * ```
+     *
+     * @param key 唯一且有序的列（通常为主键）
+     * @param pageSize 每页的行数
+     */
+    open fun <R> keyset(dataSource: DataSource, key: String, pageSize: Int = 1000, mapper: ResultSet.() -> R, func: ActionSelect.() -> Unit = {}): Sequence<R> {
+        return sequence {
+            var last: Any? = null
+            while (true) {
+                val after = last
+                val page = select(dataSource) {
+                    func(this)
+                    if (after != null) {
+                        where { key gt after }
+                    }
+                    orderBy(key)
+                    limit(pageSize)
+                }.map { getObject(key.substringAfterLast('.')) to mapper(this) }
+                page.forEach { yield(it.second) }
+                if (page.size < pageSize) {
+                    break
+                }
+                last = page.last().first
+            }
+        }
+    }
+
     /**
      * # 创建工作空间
      *
@@ -123,6 +184,37 @@ open class Table<T : Host<E>, E : ColumnBuilder>(val name: String, val host: Hos
         return ExecutableSource(this, dataSource, true).also(func).saveChanges()
     }
 
+    /**
+     * # 创建延迟批量写入队列
+     *
+     * 写入操作进入队列后按数量或时间批量提交，适用于大量的单行写入（例如玩家数据保存）。
+     *
+     * ```
+     * val queue = table.writeBehind(dataSource)
+     * queue.insert("name", "data") {
+     *     value("sky", 1)
+     * }
+     * ```
+     *
+     * @param batchSize 队列长度达到该值时立即提交
+     * @param flushPeriod 定时提交的间隔（单位：tick）
+     */
+    open fun writeBehind(dataSource: DataSource, batchSize: Int = 256, flushPeriod: Long = 20): WriteBehindQueue {
+        return WriteBehindQueue(this, dataSource, batchSize, flushPeriod)
+    }
+
+    /**
+     * # 异步操作
+     *
+     * 所有操作在与连接池大小一致的数据库线程池中执行，并返回 `CompletableFuture`。
+     * 可以通过 `onMainThread()` 回到主线程处理结果。
+     *
+     * @param timeout 超时时间（单位：毫秒，0 表示不限制）
+     */
+    open fun async(dataSource: DataSource, timeout: Long = DatabaseExecutor.of(dataSource).timeout): AsyncTable {
+        return AsyncTable(this, dataSource, DatabaseExecutor.of(dataSource), timeout)
+    }
+
     override fun toString(): String {
         return "Table(name='$name', columns=$columns, primaryKeyForLegacy=$primaryKeyForLegacy)"
     }
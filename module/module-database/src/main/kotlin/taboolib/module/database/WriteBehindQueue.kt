@@ -0,0 +1,248 @@
+package taboolib.module.database
+
+import taboolib.common.platform.function.submitAsync
+import taboolib.common.platform.function.warning
+import taboolib.common.platform.service.PlatformExecutor
+import java.sql.Connection
+import java.sql.SQLException
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import javax.sql.DataSource
+
+/**
+ * TabooLib
+ * taboolib.module.database.WriteBehindQueue
+ *
+ * 延迟批量写入队列
+ *
+ * 写入操作（插入、更新、删除）进入队列后不会立即执行，而是在队列长度达到 [batchSize]、
+ * 经过 [flushPeriod] 或插件关闭时统一提交。连续且语句相同的操作会合并为一个批处理（`addBatch` / `executeBatch`），
+ * 每次提交在同一个事务中完成。
+ *
+ * ```
+ * val queue = table.writeBehind(dataSource)
+ * queue.update {
+ *     set("data", 1)
+ *     where("name" eq "sky")
+ * }
+ * ```
+ *
+ * 需要注意的是，队列中的操作不支持 `onFinally` 回调（无法读取自增主键）。
+ *
+ * 提交失败时（如数据库暂时不可用）操作会回到队列头部，在下一次提交时重试；
+ * 连续失败超过 [maxRetries] 次后放弃这些操作并交给 [onFailure] 处理。
+ *
+ * @param batchSize 队列长度达到该值时立即提交
+ * @param flushPeriod 定时提交的间隔（单位：tick）
+ * @param maxRetries 提交失败时的最大重试次数
+ */
+class WriteBehindQueue(val table: Table<*, *>, val dataSource: DataSource, val batchSize: Int = 256, val flushPeriod: Long = 20, val maxRetries: Int = 3) {
+
+    /** 等待提交的操作 */
+    private val queue = ConcurrentLinkedQueue<Action>()
+
+    /** 提交失败、等待重试的操作，先于 [queue] 提交 */
+    private val retryQueue = ArrayList<Action>()
+
+    /** 连续提交失败的次数 */
+    private var failedAttempts = 0
+
+    /** 放弃重试的操作的回调函数，默认输出警告 */
+    var onFailure: ((actions: List<Action>, ex: SQLException) -> Unit)? = null
+
+    /** 队列长度 */
+    private val depth = AtomicInteger()
+
+    /** 是否已安排提交任务 */
+    private val scheduled = AtomicBoolean()
+
+    /** 定时提交任务 */
+    private var task: PlatformExecutor.PlatformTask? = null
+
+    private val flushCount = AtomicLong()
+    private val batchCount = AtomicLong()
+    private val rowCount = AtomicLong()
+    private val totalLatency = AtomicLong()
+    private val failureCount = AtomicLong()
+    private val droppedCount = AtomicLong()
+
+    /** 上一次提交的耗时（单位：纳秒） */
+    @Volatile
+    var lastFlushLatency = 0L
+        private set
+
+    /** 队列长度 */
+    val queueDepth: Int
+        get() = depth.get()
+
+    /** 已提交的操作数量 */
+    val rowsWritten: Long
+        get() = rowCount.get()
+
+    /** 提交失败的次数 */
+    val flushFailures: Long
+        get() = failureCount.get()
+
+    /** 重试失败后被放弃的操作数量 */
+    val operationsDropped: Long
+        get() = droppedCount.get()
+
+    /** 平均每个批处理的操作数量 */
+    val rowsPerBatch: Double
+        get() = if (batchCount.get() == 0L) 0.0 else rowCount.get().toDouble() / batchCount.get()
+
+    /** 平均提交耗时（单位：纳秒） */
+    val averageFlushLatency: Long
+        get() = if (flushCount.get() == 0L) 0 else totalLatency.get() / flushCount.get()
+
+    init {
+        if (flushPeriod > 0) {
+            task = submitAsync(period = flushPeriod, delay = flushPeriod) { flush() }
+        }
+        Database.prepareClose { close() }
+    }
+
+    /** 插入数据 */
+    fun insert(vararg keys: String, func: ActionInsert.() -> Unit) {
+        enqueue(ActionInsert(table.name, arrayOf(*keys)).also(func))
+    }
+
+    /** 插入数据 */
+    fun insert(keys: List<String>, func: ActionInsert.() -> Unit) {
+        enqueue(ActionInsert(table.name, keys.toTypedArray()).also(func))
+    }
+
+    /** 更新数据 */
+    fun update(func: ActionUpdate.() -> Unit) {
+        enqueue(ActionUpdate(table.name).also(func))
+    }
+
+    /** 删除数据 */
+    fun delete(func: ActionDelete.() -> Unit) {
+        enqueue(ActionDelete(table.name).also(func))
+    }
+
+    /** 将操作加入队列 */
+    fun enqueue(action: Action) {
+        queue += action
+        if (depth.incrementAndGet() >= batchSize && scheduled.compareAndSet(false, true)) {
+            submitAsync {
+                try {
+                    flush()
+                } finally {
+                    scheduled.set(false)
+                }
+            }
+        }
+    }
+
+    /**
+     * 立即提交队列中的所有操作
+     *
+     * @return 受影响的行数
+     */
+    @Synchronized
+    fun flush(): Int {
+        val actions = ArrayList<Action>(retryQueue)
+        depth.addAndGet(-retryQueue.size)
+        retryQueue.clear()
+        while (true) {
+            actions += queue.poll() ?: break
+            depth.decrementAndGet()
+        }
+        if (actions.isEmpty()) {
+            return 0
+        }
+        val time = System.nanoTime()
+        var updated = 0
+        var batches = 0
+        try {
+            dataSource.connection.use { connection ->
+                val autoCommit = connection.autoCommit
+                connection.autoCommit = false
+                try {
+                    // 仅合并连续的相同语句，以保证操作顺序不变
+                    val queries = actions.map { table.templates.getQuery(it) }
+                    var index = 0
+                    while (index < actions.size) {
+                        val query = queries[index]
+                        var end = index + 1
+                        while (end < actions.size && queries[end] == query) {
+                            end++
+                        }
+                        updated += executeBatch(connection, query, actions.subList(index, end))
+                        batches++
+                        index = end
+                    }
+                    connection.commit()
+                } catch (ex: SQLException) {
+                    try {
+                        connection.rollback()
+                    } catch (e: Throwable) {
+                        e.printStackTrace()
+                    }
+                    throw ex
+                } finally {
+                    connection.autoCommit = autoCommit
+                }
+            }
+            failedAttempts = 0
+            batchCount.addAndGet(batches.toLong())
+            rowCount.addAndGet(actions.size.toLong())
+        } catch (ex: SQLException) {
+            failureCount.incrementAndGet()
+            updated = 0
+            if (++failedAttempts <= maxRetries) {
+                // 回到队列头部，下一次提交时重试
+                warning("Failed to flush ${actions.size} operations to table ${table.name}, retry $failedAttempts/$maxRetries")
+                retryQueue.addAll(actions)
+                depth.addAndGet(actions.size)
+            } else {
+                failedAttempts = 0
+                droppedCount.addAndGet(actions.size.toLong())
+                val callback = onFailure
+                if (callback != null) {
+                    callback(actions, ex)
+                } else {
+                    warning("Failed to flush ${actions.size} operations to table ${table.name}, dropped")
+                    ex.printStackTrace()
+                }
+            }
+        }
+        lastFlushLatency = System.nanoTime() - time
+        totalLatency.addAndGet(lastFlushLatency)
+        flushCount.incrementAndGet()
+        return updated
+    }
+
+    /** 提交剩余操作并停止定时任务，提交失败时立即重试直到放弃 */
+    @Synchronized
+    fun close() {
+        task?.cancel()
+        task = null
+        flush()
+        while (retryQueue.isNotEmpty()) {
+            flush()
+        }
+    }
+
+    @Suppress("SqlSourceToSinkFlow")
+    private fun executeBatch(connection: Connection, query: String, actions: List<Action>): Int {
+        return try {
+            connection.prepareStatement(query).use { statement ->
+                actions.forEach { action ->
+                    action.elements.forEachIndexed { index, any -> statement.setObject(index + 1, any) }
+                    statement.addBatch()
+                }
+                val result = statement.executeBatch()
+                result.sumOf { if (it > 0) it else 0 }
+            }
+        } catch (ex: SQLException) {
+            warning("Query: $query")
+            warning("Batch size: ${actions.size}")
+            throw ex
+        }
+    }
+}
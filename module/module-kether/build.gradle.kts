@@ -25,10 +25,21 @@ dependencies {
     compileOnly("org.apache.commons:commons-jexl3:3.2.1")
     // 服务端
     compileOnly("ink.ptms.core:v12004:12004-minimize:mapped")
+    // 测试
+    testImplementation(kotlin("stdlib"))
+    testImplementation(project(":common"))
+    testImplementation(project(":common-util"))
+    testImplementation("com.google.guava:guava:21.0")
+    testImplementation("com.mojang:datafixerupper:4.0.26")
+    testImplementation("org.apache.commons:commons-jexl3:3.2.1")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.1")
 }
 
 tasks {
     withType<ShadowJar> {
         relocate("org.apache.commons.jexl3", "org.apache.commons.jexl3_3_2_1")
     }
+    test {
+        useJUnitPlatform()
+    }
 }
\ No newline at end of file
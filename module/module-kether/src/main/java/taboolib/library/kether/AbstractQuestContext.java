@@ -17,6 +17,7 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
     protected final QuestExecutor executor;
     protected ExitStatus exitStatus;
     protected CompletableFuture<Object> future;
+    protected boolean allowSync = true;
 
     protected AbstractQuestContext(QuestService<T> service, Quest quest, String playerIdentifier) {
         this.service = service;
@@ -28,7 +29,9 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
     protected abstract Executor createExecutor();
 
     protected Frame createRootFrame() {
-        return new SimpleNamedFrame(null, new LinkedList<>(), new SimpleVarTable(null), QuestContext.BASE_BLOCK, this);
+        VarSlots slots = quest.getSlots();
+        VarTable varTable = slots != null ? new SlotVarTable(null, slots) : new SimpleVarTable(null);
+        return new SimpleNamedFrame(null, new LinkedList<>(), varTable, QuestContext.BASE_BLOCK, this);
     }
 
     public QuestService<T> getService() {
@@ -60,9 +63,55 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
         return rootFrame;
     }
 
+    /**
+     * 是否允许以同步模式执行可同步执行的脚本
+     */
+    public boolean isAllowSync() {
+        return allowSync;
+    }
+
+    public void setAllowSync(boolean allowSync) {
+        this.allowSync = allowSync;
+    }
+
     @Override
     public CompletableFuture<Object> runActions() {
+        Executor executor = startExecutor();
+        if (executor == null) {
+            return runActionsDirect();
+        }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                runActionsDirect().whenComplete((value, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取开始执行脚本前需要切换到的执行器，返回 null 表示在当前线程中开始执行
+     */
+    protected Executor startExecutor() {
+        return null;
+    }
+
+    /**
+     * 在当前线程中开始执行脚本
+     */
+    protected CompletableFuture<Object> runActionsDirect() {
         Preconditions.checkState(future == null, "already running");
+        if (isAllowSync() && quest.isSync()) {
+            return future = runSync();
+        }
         return future = rootFrame.run().thenApply(o -> {
             if (this.exitStatus == null) {
                 this.exitStatus = ExitStatus.success();
@@ -71,6 +120,57 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
         });
     }
 
+    /**
+     * 同步执行：在根 Frame 中依次直接调用主代码块中的动作，不创建 CompletableFuture 链与子 Frame
+     */
+    protected CompletableFuture<Object> runSync() {
+        Optional<Quest.Block> block = quest.getBlock(QuestContext.BASE_BLOCK);
+        Object result = null;
+        if (block.isPresent()) {
+            rootFrame.variables().initialize(rootFrame);
+            for (ParsedAction<?> action : block.get().getActions()) {
+                if (exitStatus != null) {
+                    break;
+                }
+                result = action.call(rootFrame);
+            }
+        }
+        if (exitStatus == null) {
+            exitStatus = ExitStatus.success();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * 获取执行动作前需要切换到的执行器，返回 null 表示在当前线程中执行
+     */
+    protected Executor executorFor(ParsedAction<?> action) {
+        return null;
+    }
+
+    /**
+     * 当前是否可以被重置并再次执行（未执行或已执行完毕）
+     */
+    public boolean isReusable() {
+        return future == null || future.isDone();
+    }
+
+    /**
+     * 重置上下文以便再次执行脚本，清空变量表与退出状态，不重新创建根 Frame 与执行器
+     */
+    public void reset() {
+        Preconditions.checkState(isReusable(), "still running");
+        if (rootFrame instanceof AbstractFrame) {
+            ((AbstractFrame) rootFrame).reset();
+        } else {
+            rootFrame.close();
+        }
+        rootFrame.variables().clear();
+        exitStatus = null;
+        future = null;
+        allowSync = true;
+    }
+
     @Override
     public void terminate() {
         this.rootFrame.close();
@@ -175,6 +275,43 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
             return this.future == null || this.future.isDone();
         }
 
+        /**
+         * 执行动作，若上下文要求切换线程则在对应的执行器中执行
+         * 动作完成后后续的动作将继续在该线程中执行，因此只有在线程需求改变时才会切换
+         */
+        @SuppressWarnings("unchecked")
+        protected CompletableFuture<Object> processAction(ParsedAction<?> action) {
+            Executor executor = questContext instanceof AbstractQuestContext ? ((AbstractQuestContext<?>) questContext).executorFor(action) : null;
+            if (executor == null) {
+                return (CompletableFuture<Object>) action.process(this);
+            }
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    ((CompletableFuture<Object>) action.process(this)).whenComplete((value, ex) -> {
+                        if (ex != null) {
+                            future.completeExceptionally(ex);
+                        } else {
+                            future.complete(value);
+                        }
+                    });
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+            return future;
+        }
+
+        /**
+         * 重置 Frame 以便再次执行
+         */
+        protected void reset() {
+            close();
+            this.frames.clear();
+            this.cleanup();
+            this.future = null;
+        }
+
         void cleanup() {
             while (!closeables.isEmpty()) {
                 try {
@@ -203,6 +340,16 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
             return this.name;
         }
 
+        @Override
+        protected void reset() {
+            super.reset();
+            this.block = null;
+            this.next = null;
+            this.sp = -1;
+            this.np = -1;
+            context().getQuest().getBlock(name).ifPresent(this::setNext);
+        }
+
         @Override
         public Optional<ParsedAction<?>> currentAction() {
             if (block == null || sp == -1) {
@@ -253,7 +400,7 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
                 Optional<? extends ParsedAction<?>> optional = nextAction();
                 if (optional.isPresent()) {
                     ParsedAction<?> action = optional.get();
-                    CompletableFuture<?> newFuture = action.process(this);
+                    CompletableFuture<?> newFuture = processAction(action);
                     if (!newFuture.isDone()) {
                         newFuture.thenRun(() -> this.process(newFuture));
                         return;
@@ -312,17 +459,17 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
         public <T> CompletableFuture<T> run() {
             Preconditions.checkState(this.future == null, "already running");
             this.varTable.initialize(this);
-            return (CompletableFuture<T>) (this.future = this.action.process(this));
+            return (CompletableFuture<T>) (this.future = processAction(this.action));
         }
     }
 
     public static class SimpleVarTable implements VarTable {
 
         private final Frame parent;
-        private final Map<String, Object> map;
+        private Map<String, Object> map;
 
         public SimpleVarTable(Frame parent) {
-            this(parent, new HashMap<>());
+            this(parent, null);
         }
 
         public SimpleVarTable(Frame parent, Map<String, Object> map) {
@@ -330,6 +477,16 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
             this.map = map;
         }
 
+        /**
+         * 子 Frame 的变量表大多不会写入变量，因此在第一次写入时才创建 Map
+         */
+        private Map<String, Object> map() {
+            if (map == null) {
+                map = new HashMap<>();
+            }
+            return map;
+        }
+
         @Override
         public VarTable parent() {
             return parent != null ? parent.variables() : null;
@@ -338,7 +495,7 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
         @Override
         @SuppressWarnings("unchecked")
         public <T> Optional<T> get(@NotNull String name) throws CompletionException {
-            Object o = map.get(name);
+            Object o = map != null ? map.get(name) : null;
             if (o == null && parent != null) {
                 return parent.variables().get(name);
             }
@@ -348,10 +505,23 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
             return (Optional<T>) Optional.ofNullable(o);
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Optional<T> get(@NotNull VarSlot slot) throws CompletionException {
+            Object o = map != null ? map.get(slot.getName()) : null;
+            if (o == null && parent != null) {
+                return parent.variables().get(slot);
+            }
+            if (o instanceof QuestFuture<?>) {
+                o = ((QuestFuture<?>) o).getFuture().join();
+            }
+            return (Optional<T>) Optional.ofNullable(o);
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         public <T> Optional<QuestFuture<T>> getFuture(@NotNull String name) {
-            Object o = map.get(name);
+            Object o = map != null ? map.get(name) : null;
             if (o == null && parent != null) {
                 return parent.variables().getFuture(name);
             }
@@ -365,53 +535,309 @@ public abstract class AbstractQuestContext<T extends AbstractQuestContext<T>> im
         @Override
         public void set(@NotNull String name, Object value) {
             if (name.startsWith("~") || parent() == null) {
+                map().put(name, value);
+            } else {
+                parent().set(name, value);
+            }
+        }
+
+        @Override
+        public void set(@NotNull VarSlot slot, Object value) {
+            if (slot.getName().startsWith("~") || parent() == null) {
+                map().put(slot.getName(), value);
+            } else {
+                parent().set(slot, value);
+            }
+        }
+
+        @Override
+        public <T> void set(@NotNull String name, @NotNull ParsedAction<T> owner, @NotNull CompletableFuture<T> future) {
+            map().put(name, new QuestFuture<>(owner, future));
+        }
+
+        @Override
+        public void remove(@NotNull String name) {
+            if (map != null) {
+                map.remove(name);
+            }
+        }
+
+        @Override
+        public void clear() {
+            if (map != null) {
+                map.clear();
+            }
+        }
+
+        @Override
+        public Set<String> keys() {
+            return map != null ? Collections.unmodifiableSet(map.keySet()) : Collections.emptySet();
+        }
+
+        @Override
+        public boolean containsLocal(@NotNull String name) {
+            return map != null && map.containsKey(name);
+        }
+
+        @Override
+        public Object getLocal(@NotNull String name) {
+            return map != null ? map.get(name) : null;
+        }
+
+        @Override
+        public Collection<Map.Entry<String, Object>> values() {
+            return map != null ? Collections.unmodifiableCollection(map.entrySet()) : Collections.emptyList();
+        }
+
+        @Override
+        public void initialize(@NotNull Frame frame) {
+            if (map == null) {
+                return;
+            }
+            for (Object o : map.values()) {
+                if (o instanceof QuestFuture) {
+                    ((QuestFuture<?>) o).run(frame);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (map == null) {
+                return;
+            }
+            for (Object o : map.values()) {
+                if (o instanceof QuestFuture) {
+                    ((QuestFuture<?>) o).close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 基于槽位的变量表
+     * <p>
+     * 解析时已知的变量名（{@link VarSlots}）存放在数组中，通过下标直接读写；
+     * 其他动态变量名（如 {@code set {{ name }} to ...}）存放在回退的 Map 中。
+     * 按名称访问时先查找槽位，因此与 {@link SimpleVarTable} 的行为一致。
+     */
+    public static class SlotVarTable implements VarTable {
+
+        /** 表示变量存在但值为 null（与 Map 中的 null 值相同） */
+        private static final Object NULL = new Object();
+
+        private final Frame parent;
+        private final VarSlots slots;
+        private Object[] values;
+        private Map<String, Object> map;
+
+        public SlotVarTable(Frame parent, VarSlots slots) {
+            this.parent = parent;
+            this.slots = slots;
+            this.values = new Object[slots.size()];
+        }
+
+        public VarSlots getSlots() {
+            return slots;
+        }
+
+        private int indexOf(String name) {
+            VarSlot slot = slots.find(name);
+            return slot != null ? slot.getIndex() : -1;
+        }
+
+        private int indexOf(VarSlot slot) {
+            return slot.isBound(slots) ? slot.getIndex() : indexOf(slot.getName());
+        }
+
+        private Object raw(int index, String name) {
+            Object o;
+            if (index >= 0) {
+                o = index < values.length ? values[index] : null;
+            } else {
+                o = map != null ? map.get(name) : null;
+            }
+            return o == NULL ? null : o;
+        }
+
+        private void put(int index, String name, Object value) {
+            if (index >= 0) {
+                if (index >= values.length) {
+                    values = Arrays.copyOf(values, Math.max(index + 1, slots.size()));
+                }
+                values[index] = value == null ? NULL : value;
+            } else {
+                if (map == null) {
+                    map = new HashMap<>();
+                }
                 map.put(name, value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> Optional<T> get(int index, String name) {
+            Object o = raw(index, name);
+            if (o == null && parent != null) {
+                return parent.variables().get(name);
+            }
+            if (o instanceof QuestFuture<?>) {
+                o = ((QuestFuture<?>) o).getFuture().join();
+            }
+            return (Optional<T>) Optional.ofNullable(o);
+        }
+
+        @Override
+        public VarTable parent() {
+            return parent != null ? parent.variables() : null;
+        }
+
+        @Override
+        public <T> Optional<T> get(@NotNull String name) throws CompletionException {
+            return get(indexOf(name), name);
+        }
+
+        @Override
+        public <T> Optional<T> get(@NotNull VarSlot slot) throws CompletionException {
+            return get(indexOf(slot), slot.getName());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Optional<QuestFuture<T>> getFuture(@NotNull String name) {
+            Object o = raw(indexOf(name), name);
+            if (o == null && parent != null) {
+                return parent.variables().getFuture(name);
+            }
+            if (o instanceof QuestFuture) {
+                return Optional.of((QuestFuture<T>) o);
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public void set(@NotNull String name, Object value) {
+            if (name.startsWith("~") || parent() == null) {
+                put(indexOf(name), name, value);
             } else {
                 parent().set(name, value);
             }
         }
 
+        @Override
+        public void set(@NotNull VarSlot slot, Object value) {
+            if (slot.getName().startsWith("~") || parent() == null) {
+                put(indexOf(slot), slot.getName(), value);
+            } else {
+                parent().set(slot, value);
+            }
+        }
+
         @Override
         public <T> void set(@NotNull String name, @NotNull ParsedAction<T> owner, @NotNull CompletableFuture<T> future) {
-            this.map.put(name, new QuestFuture<>(owner, future));
+            put(indexOf(name), name, new QuestFuture<>(owner, future));
         }
 
         @Override
         public void remove(@NotNull String name) {
-            this.map.remove(name);
+            remove(indexOf(name), name);
+        }
+
+        @Override
+        public void remove(@NotNull VarSlot slot) {
+            remove(indexOf(slot), slot.getName());
+        }
+
+        private void remove(int index, String name) {
+            if (index >= 0) {
+                if (index < values.length) {
+                    values[index] = null;
+                }
+            } else if (map != null) {
+                map.remove(name);
+            }
         }
 
         @Override
         public void clear() {
-            this.map.clear();
+            Arrays.fill(values, null);
+            if (map != null) {
+                map.clear();
+            }
+        }
+
+        @Override
+        public boolean containsLocal(@NotNull String name) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                return index < values.length && values[index] != null;
+            }
+            return map != null && map.containsKey(name);
+        }
+
+        @Override
+        public Object getLocal(@NotNull String name) {
+            return raw(indexOf(name), name);
         }
 
         @Override
         public Set<String> keys() {
-            return Collections.unmodifiableSet(this.map.keySet());
+            Set<String> keys = new LinkedHashSet<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    keys.add(slots.nameOf(i));
+                }
+            }
+            if (map != null) {
+                keys.addAll(map.keySet());
+            }
+            return Collections.unmodifiableSet(keys);
         }
 
         @Override
         public Collection<Map.Entry<String, Object>> values() {
-            return Collections.unmodifiableCollection(this.map.entrySet());
+            List<Map.Entry<String, Object>> entries = new ArrayList<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(slots.nameOf(i), values[i] == NULL ? null : values[i]));
+                }
+            }
+            if (map != null) {
+                entries.addAll(map.entrySet());
+            }
+            return Collections.unmodifiableCollection(entries);
         }
 
         @Override
         public void initialize(@NotNull Frame frame) {
-            for (Object o : this.map.values()) {
+            for (Object o : values) {
                 if (o instanceof QuestFuture) {
                     ((QuestFuture<?>) o).run(frame);
                 }
             }
+            if (map != null) {
+                for (Object o : map.values()) {
+                    if (o instanceof QuestFuture) {
+                        ((QuestFuture<?>) o).run(frame);
+                    }
+                }
+            }
         }
 
         @Override
         public void close() {
-            for (Object o : this.map.values()) {
+            for (Object o : values) {
                 if (o instanceof QuestFuture) {
                     ((QuestFuture<?>) o).close();
                 }
             }
+            if (map != null) {
+                for (Object o : map.values()) {
+                    if (o instanceof QuestFuture) {
+                        ((QuestFuture<?>) o).close();
+                    }
+                }
+            }
         }
     }
 }
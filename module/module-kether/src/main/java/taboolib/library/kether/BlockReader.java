@@ -14,6 +14,7 @@ public class BlockReader extends AbstractStringReader {
     protected final Map<String, Quest.Block> blocks;
     protected final QuestService<?> service;
     protected final List<String> namespace;
+    protected final VarSlots slots;
     protected String currentBlock;
 
     public BlockReader(char[] content, QuestService<?> service, List<String> namespace) {
@@ -21,21 +22,27 @@ public class BlockReader extends AbstractStringReader {
         this.blocks = new HashMap<>();
         this.service = service;
         this.namespace = namespace;
+        this.slots = new VarSlots();
     }
 
     public BlockReader(char[] arr, int index, int mark, Map<String, Quest.Block> blocks, QuestService<?> service, List<String> namespace, String currentBlock) {
+        this(arr, index, mark, blocks, service, namespace, currentBlock, new VarSlots());
+    }
+
+    public BlockReader(char[] arr, int index, int mark, Map<String, Quest.Block> blocks, QuestService<?> service, List<String> namespace, String currentBlock, VarSlots slots) {
         super(arr, index, mark);
         this.blocks = blocks;
         this.service = service;
         this.namespace = namespace;
         this.currentBlock = currentBlock;
+        this.slots = slots;
     }
 
     public Quest parse(String id) {
         while (hasNext()) {
             readBlock();
         }
-        return new SimpleQuest(content, blocks, id);
+        return new SimpleQuest(content, blocks, id, slots);
     }
 
     public void readBlock() {
@@ -152,4 +159,8 @@ public class BlockReader extends AbstractStringReader {
     public String getCurrentBlock() {
         return currentBlock;
     }
+
+    public VarSlots getSlots() {
+        return slots;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package taboolib.library.kether;
 
+import taboolib.module.kether.KetherProfiler;
 import taboolib.module.kether.RemoteQuestAction;
 
 import java.util.HashMap;
@@ -11,6 +12,7 @@ public class ParsedAction<A> {
 
     private final QuestAction<A> action;
     private final Map<String, Object> properties;
+    private String id;
 
     public ParsedAction(QuestAction<A> action) {
         this(action, new HashMap<>());
@@ -22,9 +24,51 @@ public class ParsedAction<A> {
     }
 
     public CompletableFuture<A> process(QuestContext.Frame frame) {
+        if (KetherProfiler.enabled) {
+            return KetherProfiler.process(this, () -> this.action.process(frame));
+        }
         return this.action.process(frame);
     }
 
+    /**
+     * 是否可以同步执行，需要独立 Frame 的动作不可同步执行
+     */
+    public boolean isSync() {
+        return this.action.isSync() && !get(ActionProperties.REQUIRE_FRAME, false);
+    }
+
+    /**
+     * 是否需要在主线程中执行
+     */
+    public boolean isMainThread() {
+        return this.action.isMainThread();
+    }
+
+    /**
+     * 同步执行，在当前 Frame 中直接调用
+     */
+    public A call(QuestContext.Frame frame) {
+        if (KetherProfiler.enabled) {
+            return KetherProfiler.call(this, () -> this.action.call(frame));
+        }
+        return this.action.call(frame);
+    }
+
+    /**
+     * 动作名称（解析时的关键字），未记录时使用动作的类名
+     */
+    public String getId() {
+        if (id == null) {
+            Class<?> type = action.getClass();
+            id = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+        }
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T get(ActionProperty<T> key) throws NullPointerException {
         return Objects.requireNonNull((T) this.properties.get(key.id), key.id);
@@ -32,8 +32,65 @@ public final class Parser<T> implements App<Parser.Mu, T> {
 
         CompletableFuture<T> run(@NotNull QuestContext.Frame frame);
 
+        /**
+         * 是否可以同步执行
+         */
+        default boolean isSync() {
+            return false;
+        }
+
+        /**
+         * 同步执行，仅在 {@link #isSync()} 为 true 时调用
+         */
+        default T call(@NotNull QuestContext.Frame frame) {
+            return QuestAction.join(run(frame));
+        }
+
         static <T> Action<T> point(T value) {
-            return frame -> CompletableFuture.completedFuture(value);
+            return sync(frame -> value);
+        }
+
+        /**
+         * 创建可同步执行的动作
+         */
+        static <T> Action<T> sync(Function<QuestContext.Frame, T> func) {
+            return new SyncAction<>(null, func);
+        }
+
+        /**
+         * 创建可同步执行的动作，异步模式下仍然使用 async 执行
+         */
+        static <T> Action<T> sync(Action<T> async, Function<QuestContext.Frame, T> func) {
+            return new SyncAction<>(async, func);
+        }
+    }
+
+    /**
+     * 可同步执行的动作
+     */
+    public static final class SyncAction<T> implements Action<T> {
+
+        private final Action<T> async;
+        private final Function<QuestContext.Frame, T> sync;
+
+        private SyncAction(Action<T> async, Function<QuestContext.Frame, T> sync) {
+            this.async = async;
+            this.sync = sync;
+        }
+
+        @Override
+        public CompletableFuture<T> run(@NotNull QuestContext.Frame frame) {
+            return async != null ? async.run(frame) : CompletableFuture.completedFuture(sync.apply(frame));
+        }
+
+        @Override
+        public boolean isSync() {
+            return true;
+        }
+
+        @Override
+        public T call(@NotNull QuestContext.Frame frame) {
+            return sync.apply(frame);
         }
     }
 
@@ -73,10 +130,20 @@ public final class Parser<T> implements App<Parser.Mu, T> {
             }
             r.expect("]");
             list.trimToSize();
-            return frame -> {
+            Action<List<T>> async = frame -> {
                 CompletableFuture<T>[] futures = (CompletableFuture<T>[]) list.stream().map(it -> it.run(frame)).toArray(CompletableFuture<?>[]::new);
                 return CompletableFuture.allOf(futures).thenApply(it -> Arrays.stream(futures).map(CompletableFuture::join).collect(Collectors.toList()));
             };
+            if (list.stream().allMatch(Action::isSync)) {
+                return Action.sync(async, frame -> {
+                    List<T> result = new ArrayList<>(list.size());
+                    for (Action<T> action : list) {
+                        result.add(action.call(frame));
+                    }
+                    return result;
+                });
+            }
+            return async;
         });
     }
 
@@ -109,6 +176,14 @@ public final class Parser<T> implements App<Parser.Mu, T> {
     }
 
     public static <A> QuestActionParser build(App<Mu, Action<A>> fa) {
+        return build(fa, false);
+    }
+
+    /**
+     * @param sync 是否允许同步执行。参数均可同步执行时，返回的动作同样需要可同步执行（如 {@link Action#sync(Function)}），
+     *             返回 future 等异步动作的解析器不应当开启
+     */
+    public static <A> QuestActionParser build(App<Mu, Action<A>> fa, boolean sync) {
         Function<QuestReader, Action<Action<A>>> f = unbox(fa).reader;
         return new QuestActionParser() {
             @Override
@@ -121,6 +196,19 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                     public CompletableFuture<T> process(@NotNull QuestContext.Frame frame) {
                         return action.run(frame).thenCompose(it -> (CompletableFuture<T>) it.run(frame));
                     }
+
+                    @Override
+                    public boolean isSync() {
+                        return sync && action.isSync();
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public T call(@NotNull QuestContext.Frame frame) {
+                        Action<A> result = action.call(frame);
+                        // 返回的动作不可同步执行时按异步方式运行
+                        return (T) (result.isSync() ? result.call(frame) : QuestAction.join(result.run(frame)));
+                    }
                 };
             }
         };
@@ -151,9 +239,13 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                 return new Parser<>(r -> {
                     Action<Function<A, R>> af = f.reader.apply(r);
                     Action<A> aa = fa.reader.apply(r);
-                    return frame -> {
+                    Action<R> async = frame -> {
                         return af.run(frame).thenCompose(f1 -> aa.run(frame).thenApply(f1));
                     };
+                    if (af.isSync() && aa.isSync()) {
+                        return Action.sync(async, frame -> af.call(frame).apply(aa.call(frame)));
+                    }
+                    return async;
                 });
             };
         }
@@ -163,7 +255,11 @@ public final class Parser<T> implements App<Parser.Mu, T> {
             Function<QuestReader, Action<A>> function = unbox(ts).reader;
             return new Parser<>(r -> {
                 Action<A> a = function.apply(r);
-                return frame -> a.run(frame).thenApply(func);
+                Action<R> async = frame -> a.run(frame).thenApply(func);
+                if (a.isSync()) {
+                    return Action.sync(async, frame -> func.apply(a.call(frame)));
+                }
+                return async;
             });
         }
 
@@ -176,13 +272,17 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                 Action<BiFunction<A, B, R>> af = f.reader.apply(r);
                 Action<A> aa = fa.reader.apply(r);
                 Action<B> ab = fb.reader.apply(r);
-                return frame -> af.run(frame).thenCompose(
+                Action<R> async = frame -> af.run(frame).thenCompose(
                         f1 -> aa.run(frame).thenCompose(
                                 f2 -> ab.run(frame).thenApply(
                                         f3 -> f1.apply(f2, f3)
                                 )
                         )
                 );
+                if (af.isSync() && aa.isSync() && ab.isSync()) {
+                    return Action.sync(async, frame -> af.call(frame).apply(aa.call(frame), ab.call(frame)));
+                }
+                return async;
             });
         }
 
@@ -197,7 +297,7 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                 Action<T1> aa = fa.reader.apply(r);
                 Action<T2> ab = fb.reader.apply(r);
                 Action<T3> ac = fc.reader.apply(r);
-                return frame -> af.run(frame).thenCompose(
+                Action<R> async = frame -> af.run(frame).thenCompose(
                         f1 -> aa.run(frame).thenCompose(
                                 f2 -> ab.run(frame).thenCompose(
                                         f3 -> ac.run(frame).thenApply(
@@ -206,6 +306,10 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                                 )
                         )
                 );
+                if (af.isSync() && aa.isSync() && ab.isSync() && ac.isSync()) {
+                    return Action.sync(async, frame -> af.call(frame).apply(aa.call(frame), ab.call(frame), ac.call(frame)));
+                }
+                return async;
             });
         }
 
@@ -223,7 +327,7 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                 Action<T2> ab = fb.reader.apply(r);
                 Action<T3> ac = fc.reader.apply(r);
                 Action<T4> ad = fd.reader.apply(r);
-                return frame -> af.run(frame).thenCompose(
+                Action<R> async = frame -> af.run(frame).thenCompose(
                         f1 -> aa.run(frame).thenCompose(
                                 f2 -> ab.run(frame).thenCompose(
                                         f3 -> ac.run(frame).thenCompose(
@@ -234,6 +338,10 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                                 )
                         )
                 );
+                if (af.isSync() && aa.isSync() && ab.isSync() && ac.isSync() && ad.isSync()) {
+                    return Action.sync(async, frame -> af.call(frame).apply(aa.call(frame), ab.call(frame), ac.call(frame), ad.call(frame)));
+                }
+                return async;
             });
         }
 
@@ -252,7 +360,7 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                 Action<T3> ac = fc.reader.apply(r);
                 Action<T4> ad = fd.reader.apply(r);
                 Action<T5> ae = fe.reader.apply(r);
-                return frame -> af.run(frame).thenCompose(
+                Action<R> async = frame -> af.run(frame).thenCompose(
                         f1 -> aa.run(frame).thenCompose(
                                 f2 -> ab.run(frame).thenCompose(
                                         f3 -> ac.run(frame).thenCompose(
@@ -265,6 +373,10 @@ public final class Parser<T> implements App<Parser.Mu, T> {
                                 )
                         )
                 );
+                if (af.isSync() && aa.isSync() && ab.isSync() && ac.isSync() && ad.isSync() && ae.isSync()) {
+                    return Action.sync(async, frame -> af.call(frame).apply(aa.call(frame), ab.call(frame), ac.call(frame), ad.call(frame), ae.call(frame)));
+                }
+                return async;
             });
         }
     }
@@ -16,6 +16,27 @@ public interface Quest {
 
     Optional<Block> blockOf(@NotNull ParsedAction<?> action);
 
+    /**
+     * 是否可以同步执行（主代码块中的所有动作均可同步执行）
+     */
+    default boolean isSync() {
+        return false;
+    }
+
+    /**
+     * 是否线程安全（主代码块中的所有动作均不需要主线程）
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * 解析时分配的变量槽位，不支持槽位时返回 null
+     */
+    default VarSlots getSlots() {
+        return null;
+    }
+
     interface Block {
 
         String getLabel();
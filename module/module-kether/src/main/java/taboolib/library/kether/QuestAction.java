@@ -11,6 +11,40 @@ public abstract class QuestAction<T> {
      */
     public abstract CompletableFuture<T> process(@NotNull QuestContext.Frame frame);
 
+    /**
+     * 是否可以同步执行（执行过程中不会挂起，且不包含 wait、await 等异步动作）
+     * 所有动作均可同步执行的脚本将跳过 CompletableFuture 与 Frame，直接调用 {@link #call(QuestContext.Frame)}
+     */
+    public boolean isSync() {
+        return false;
+    }
+
+    /**
+     * 是否需要在主线程中执行（操作世界、玩家等非线程安全的对象）
+     * 默认为 true，只有确认不访问非线程安全对象的动作（如读写脚本变量、数学运算）才应当返回 false，
+     * 否则在开启 offload 的脚本中会被交给工作线程执行
+     */
+    public boolean isMainThread() {
+        return true;
+    }
+
+    /**
+     * 同步执行并直接返回结果，仅在 {@link #isSync()} 为 true 时调用
+     */
+    public T call(@NotNull QuestContext.Frame frame) {
+        return join(process(frame));
+    }
+
+    /**
+     * 读取已完成的结果，尚未完成则说明该动作在同步模式下被挂起
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        if (!future.isDone()) {
+            throw new IllegalStateException("Action suspended in sync mode");
+        }
+        return future.join();
+    }
+
     public static <T> QuestAction<T> noop() {
         return new QuestAction<T>() {
 
@@ -19,6 +53,16 @@ public abstract class QuestAction<T> {
                 return CompletableFuture.completedFuture(null);
             }
 
+            @Override
+            public boolean isSync() {
+                return true;
+            }
+
+            @Override
+            public T call(@NotNull QuestContext.Frame frame) {
+                return null;
+            }
+
             @Override
             public String toString() {
                 return "NoOp{}";
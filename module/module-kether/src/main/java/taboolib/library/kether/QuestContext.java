@@ -105,6 +105,27 @@ public interface QuestContext {
 
         void remove(@NotNull String name);
 
+        /**
+         * 通过槽位获取变量，不支持槽位的变量表按名称查找
+         */
+        default <T> Optional<T> get(@NotNull VarSlot slot) throws CompletionException {
+            return get(slot.getName());
+        }
+
+        /**
+         * 通过槽位设置变量
+         */
+        default void set(@NotNull VarSlot slot, Object value) {
+            set(slot.getName(), value);
+        }
+
+        /**
+         * 通过槽位删除变量
+         */
+        default void remove(@NotNull VarSlot slot) {
+            remove(slot.getName());
+        }
+
         void clear();
 
         <T> void set(@NotNull String name, @NotNull ParsedAction<T> owner, @NotNull CompletableFuture<T> future);
@@ -113,6 +134,25 @@ public interface QuestContext {
 
         Collection<Map.Entry<String, Object>> values();
 
+        /**
+         * 当前变量表中是否存在该变量（不查找父变量表）
+         */
+        default boolean containsLocal(@NotNull String name) {
+            return keys().contains(name);
+        }
+
+        /**
+         * 读取当前变量表中的原始值（不查找父变量表，不等待 QuestFuture）
+         */
+        default Object getLocal(@NotNull String name) {
+            for (Map.Entry<String, Object> entry : values()) {
+                if (entry.getKey().equals(name)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+
         default Map<String, Object> toMap() {
             Map<String, Object> map = new HashMap<>();
             for (Map.Entry<String, Object> entry : values()) {
@@ -49,4 +49,12 @@ public interface QuestReader {
     default ParsedAction<?> nextParsedAction(String namespace) {
         return next(questReader -> questReader.nextAction(namespace));
     }
+
+    /**
+     * 获取变量在当前脚本中的槽位，不支持槽位时返回未绑定的槽位
+     */
+    @NotNull
+    default VarSlot slot(@NotNull String name) {
+        return VarSlot.unbound(name);
+    }
 }
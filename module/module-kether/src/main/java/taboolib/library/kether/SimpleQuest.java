@@ -13,11 +13,53 @@ public class SimpleQuest implements Quest {
     private final char[] content;
     private final String id;
     private final Map<String, Block> map = Maps.newHashMap();
+    private final boolean sync;
+    private final boolean threadSafe;
+    private final VarSlots slots;
 
     public SimpleQuest(char[] content, Map<String, Block> map, String id) {
+        this(content, map, id, null);
+    }
+
+    public SimpleQuest(char[] content, Map<String, Block> map, String id, VarSlots slots) {
         this.content = content;
         this.id = id;
         this.map.putAll(map);
+        this.sync = checkSync();
+        this.threadSafe = checkThreadSafe();
+        this.slots = slots;
+    }
+
+    /**
+     * 在解析时检查主代码块中的动作是否均可同步执行
+     */
+    private boolean checkSync() {
+        Block block = map.get(QuestContext.BASE_BLOCK);
+        if (block == null) {
+            return false;
+        }
+        for (ParsedAction<?> action : block.getActions()) {
+            if (!action.isSync()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在解析时检查主代码块中的动作是否均不需要主线程
+     */
+    private boolean checkThreadSafe() {
+        Block block = map.get(QuestContext.BASE_BLOCK);
+        if (block == null) {
+            return false;
+        }
+        for (ParsedAction<?> action : block.getActions()) {
+            if (action.isMainThread()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public char[] getContent() {
@@ -59,6 +101,21 @@ public class SimpleQuest implements Quest {
         }
     }
 
+    @Override
+    public boolean isSync() {
+        return sync;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    @Override
+    public VarSlots getSlots() {
+        return slots;
+    }
+
     @Override
     public String toString() {
         return "SimpleQuest{" +
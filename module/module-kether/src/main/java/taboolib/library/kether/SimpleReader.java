@@ -95,7 +95,8 @@ public class SimpleReader extends AbstractStringReader implements QuestReader {
             case '&': {
                 skip(1);
                 beforeParse();
-                return wrap(new ActionGet<>(nextToken()));
+                String name = nextToken();
+                return wrap(new ActionGet<>(name, slot(name)));
             }
             case '*': {
                 skip(1);
@@ -109,7 +110,9 @@ public class SimpleReader extends AbstractStringReader implements QuestReader {
                 Optional<QuestActionParser> optional = service.getRegistry().getParser(element, ns);
                 if (optional.isPresent()) {
                     beforeParse();
-                    return wrap(optional.get().resolve(this));
+                    ParsedAction<T> action = wrap(optional.get().resolve(this));
+                    action.setId(element);
+                    return action;
                 } else if (Kether.INSTANCE.isAllowToleranceParser()) {
                     beforeParse();
                     return wrap(new ActionLiteral<>(element, true));
@@ -143,4 +146,10 @@ public class SimpleReader extends AbstractStringReader implements QuestReader {
     public BlockReader getBlockParser() {
         return blockParser;
     }
+
+    @NotNull
+    @Override
+    public VarSlot slot(@NotNull String name) {
+        return blockParser.getSlots().of(name);
+    }
 }
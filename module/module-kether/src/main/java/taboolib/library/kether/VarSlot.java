@@ -0,0 +1,62 @@
+package taboolib.library.kether;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 变量槽位
+ * <p>
+ * 在解析时由 {@link VarSlots} 分配，运行时 {@link AbstractQuestContext.SlotVarTable} 通过下标直接读写，不需要计算哈希。
+ * 不属于当前脚本的槽位（或未绑定的槽位）将回退到按名称查找。
+ */
+public final class VarSlot {
+
+    private final VarSlots owner;
+    private final int index;
+    private final String name;
+
+    VarSlot(VarSlots owner, int index, String name) {
+        this.owner = owner;
+        this.index = index;
+        this.name = name;
+    }
+
+    /**
+     * 所属的槽位表，保留槽位为 null
+     */
+    public VarSlots getOwner() {
+        return owner;
+    }
+
+    /**
+     * 下标，未绑定的槽位为 -1
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 是否可以在指定的槽位表中通过下标访问
+     */
+    public boolean isBound(VarSlots slots) {
+        return index >= 0 && (owner == null || owner == slots);
+    }
+
+    /**
+     * 创建未绑定的槽位，始终按名称查找
+     */
+    public static VarSlot unbound(@NotNull String name) {
+        return new VarSlot(null, -1, name);
+    }
+
+    @Override
+    public String toString() {
+        return "VarSlot{" +
+                "index=" + index +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package taboolib.library.kether;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 变量槽位表
+ * <p>
+ * 每个脚本在解析时拥有一个槽位表，静态可知的变量名（get、set、for 等）被分配为固定下标，
+ * 运行时的根变量表以数组存储这些变量，动态变量名仍然存放在回退的 Map 中。
+ */
+public class VarSlots {
+
+    /**
+     * 脚本执行者
+     */
+    public static final VarSlot SENDER = new VarSlot(null, 0, "@Sender");
+
+    /**
+     * 是否跳出循环
+     */
+    public static final VarSlot BREAK_LOOP = new VarSlot(null, 1, "@BreakLoop");
+
+    private final Map<String, VarSlot> map = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public VarSlots() {
+        register(SENDER);
+        register(BREAK_LOOP);
+    }
+
+    private void register(VarSlot slot) {
+        map.put(slot.getName(), slot);
+        names.add(slot.getName());
+    }
+
+    /**
+     * 获取或分配槽位（仅在解析时调用）
+     */
+    @NotNull
+    public synchronized VarSlot of(@NotNull String name) {
+        VarSlot slot = map.get(name);
+        if (slot == null) {
+            slot = new VarSlot(this, names.size(), name);
+            register(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * 查找已分配的槽位
+     */
+    @Nullable
+    public VarSlot find(@NotNull String name) {
+        return map.get(name);
+    }
+
+    /**
+     * 获取槽位对应的变量名
+     */
+    public String nameOf(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * 槽位数量
+     */
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public String toString() {
+        return "VarSlots" + names;
+    }
+}
@@ -0,0 +1,105 @@
+package taboolib.module.kether
+
+import taboolib.common.platform.ProxyCommandSender
+import taboolib.common.platform.command.command
+import taboolib.common.platform.command.component.CommandComponent
+import taboolib.common.platform.command.int
+
+/**
+ * TabooLib
+ * taboolib.module.kether.KetherCommand
+ *
+ * Kether 调试命令
+ *
+ * TabooLib 会被打包进不同的插件中，因此不会自动注册，需要时手动调用 [register]：
+ * ```
+ * /taboolib kether cache         查看缓存统计
+ * /taboolib kether cache clear   清空缓存
+ * /taboolib kether profiler start|stop|reset    开启、关闭或清空性能分析
+ * /taboolib kether profiler top [count]         查看耗时最多的动作与脚本
+ * /taboolib kether profiler export              导出统计快照
+ * ```
+ */
+object KetherCommand {
+
+    /**
+     * 注册调试命令
+     *
+     * @param name 命令名
+     * @param permission 命令权限
+     */
+    fun register(name: String = "taboolib", permission: String = "taboolib.command.debug") {
+        command(name, permission = permission) {
+            literal("kether") { components() }
+        }
+    }
+
+    /**
+     * 将调试命令挂载到其他命令中
+     */
+    fun CommandComponent.components() {
+        literal("cache") {
+            execute<ProxyCommandSender> { sender, _, _ ->
+                sender.sendMessage("Kether script cache: ${KetherShell.mainCache.stats()}")
+            }
+            literal("clear") {
+                execute<ProxyCommandSender> { sender, _, _ ->
+                    KetherShell.mainCache.invalidateAll()
+                    sender.sendMessage("Kether script cache cleared.")
+                }
+            }
+        }
+        literal("profiler") {
+            literal("start") {
+                execute<ProxyCommandSender> { sender, _, _ ->
+                    KetherProfiler.start()
+                    sender.sendMessage("Kether profiler started.")
+                }
+            }
+            literal("stop") {
+                execute<ProxyCommandSender> { sender, _, _ ->
+                    KetherProfiler.stop()
+                    sender.sendMessage("Kether profiler stopped.")
+                }
+            }
+            literal("reset") {
+                execute<ProxyCommandSender> { sender, _, _ ->
+                    KetherProfiler.reset()
+                    sender.sendMessage("Kether profiler reset.")
+                }
+            }
+            literal("top") {
+                execute<ProxyCommandSender> { sender, _, _ -> top(sender, 10) }
+                int("count") {
+                    execute<ProxyCommandSender> { sender, context, _ -> top(sender, context["count"].toInt()) }
+                }
+            }
+            literal("export") {
+                execute<ProxyCommandSender> { sender, _, _ ->
+                    sender.sendMessage("Kether profiler exported to ${KetherProfiler.export().path}")
+                }
+            }
+        }
+    }
+
+    private fun top(sender: ProxyCommandSender, count: Int) {
+        val state = if (KetherProfiler.enabled) "running" else "stopped"
+        sender.sendMessage("Kether profiler ($state):")
+        sender.sendMessage(" Actions:")
+        KetherProfiler.actions().take(count).forEach { sender.sendMessage("  ${format(it)}") }
+        sender.sendMessage(" Scripts:")
+        KetherProfiler.scripts().take(count).forEach { sender.sendMessage("  ${format(it)}") }
+    }
+
+    private fun format(snapshot: KetherProfiler.Snapshot): String {
+        return "%s x%d total %.2fms avg %.1fus max %.1fus latency avg %.1fus max %.1fus".format(
+            snapshot.id,
+            snapshot.invocations,
+            snapshot.totalTime / 1_000_000.0,
+            snapshot.averageTime / 1000.0,
+            snapshot.maxTime / 1000.0,
+            snapshot.averageLatency / 1000.0,
+            snapshot.maxLatency / 1000.0
+        )
+    }
+}
@@ -15,7 +15,7 @@ object KetherFunction {
     }
 
     fun parse(input: String, options: ScriptOptions = ScriptOptions()): String {
-        fun process() = parse(input, options.useCache, options.namespace, options.cache, options.sender, options.vars, options.context)
+        fun process() = parse(input, options.useCache, options.namespace, options.cache, options.sender, options.vars, options.contextFunction)
         return if (options.sandbox) runKether(detailError = options.detailError) { process() } ?: "ERROR" else process()
     }
 
@@ -32,8 +32,14 @@ fun <T> scriptParser(resolve: (QuestReader) -> QuestAction<T>): ScriptActionPars
     return ScriptActionParser(resolve)
 }
 
-fun <T> combinationParser(builder: ParserHolder.(Instance) -> App<Mu, Action<T>>): ScriptActionParser<T> {
-    val parser = build(builder(ParserHolder, instance()))
+/**
+ * 创建组合解析器
+ *
+ * @param sync 是否可以同步执行（参数均可同步执行时）。
+ * 只有返回 [ParserHolder.now] 或 [ParserHolder.execute] 等可同步执行的动作的解析器才应当开启，返回 future 的解析器在同步模式下无法挂起
+ */
+fun <T> combinationParser(sync: Boolean = false, builder: ParserHolder.(Instance) -> App<Mu, Action<T>>): ScriptActionParser<T> {
+    val parser = build(builder(ParserHolder, instance()), sync)
     return ScriptActionParser { parser.resolve<T>(this) }
 }
 
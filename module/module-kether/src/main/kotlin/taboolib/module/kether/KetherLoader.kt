@@ -36,6 +36,10 @@ class KetherLoader : ClassVisitor(0) {
         }
     }
 
+    override fun getTargetAnnotations(): List<Class<out Annotation>> {
+        return listOf(KetherParser::class.java, KetherProperty::class.java)
+    }
+
     override fun getLifeCycle(): LifeCycle {
         return LifeCycle.LOAD
     }
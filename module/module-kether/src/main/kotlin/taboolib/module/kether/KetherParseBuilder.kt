@@ -38,13 +38,32 @@ fun QuestReader.switch(func: ExpectDSL.() -> Unit): ScriptAction<*> {
     }
 }
 
-fun actionNow(name: String = "actionNow", func: QuestContext.Frame.() -> Any?): ScriptAction<Any?> {
+/**
+ * 创建立即完成的动作
+ *
+ * @param sync 是否可以同步执行（在根 Frame 中直接调用，不创建子 Frame）。
+ * 只有不修改执行流程（如 [ScriptFrame.setNext]、退出脚本）且不依赖独立 Frame（如 `~` 局部变量）的动作才应当开启
+ * @param threadSafe 是否线程安全（不访问世界、玩家等对象），线程安全的动作在开启 offload 的脚本中不会切换到主线程
+ */
+fun actionNow(name: String = "actionNow", sync: Boolean = false, threadSafe: Boolean = false, func: QuestContext.Frame.() -> Any?): ScriptAction<Any?> {
     return object : ScriptAction<Any?>() {
 
         override fun run(frame: ScriptFrame): CompletableFuture<Any?> {
             return CompletableFuture.completedFuture(func(frame))
         }
 
+        override fun isSync(): Boolean {
+            return sync
+        }
+
+        override fun isMainThread(): Boolean {
+            return !threadSafe
+        }
+
+        override fun call(frame: ScriptFrame): Any? {
+            return func(frame)
+        }
+
         override fun toString(): String {
             return "KetherDSL($name)"
         }
@@ -0,0 +1,226 @@
+package taboolib.module.kether
+
+import taboolib.common.platform.function.getDataFolder
+import taboolib.library.kether.ParsedAction
+import taboolib.library.kether.SimpleQuest
+import java.io.File
+import java.text.SimpleDateFormat
+import java.util.*
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAccumulator
+import java.util.concurrent.atomic.LongAdder
+import java.util.function.Supplier
+
+/**
+ * TabooLib
+ * taboolib.module.kether.KetherProfiler
+ *
+ * Kether 性能分析器
+ *
+ * 默认关闭，关闭时每个动作只多出一次 volatile 读取。开启后按动作名称（解析时的关键字）与脚本统计：
+ * - 调用次数、总耗时、最大耗时（动作的耗时包含其中嵌套执行的子动作）
+ * - 从调用到 [CompletableFuture] 完成的延迟（异步动作，如 `wait`、`sleep` 的延迟大于耗时）
+ *
+ * 计数器基于 [LongAdder] 与 [LongAccumulator]，多线程下不会相互竞争。
+ */
+object KetherProfiler {
+
+    /** 是否开启 */
+    @JvmField
+    @Volatile
+    var enabled = false
+
+    /** 单独统计的脚本数量上限，超出的脚本合并到 [OTHER] 中 */
+    var maximumScripts = 512
+
+    /** 开始统计的时间 */
+    var startTime = 0L
+        private set
+
+    private const val OTHER = "<other>"
+
+    private val actions = ConcurrentHashMap<String, Stats>()
+    private val scripts = ConcurrentHashMap<String, Stats>()
+
+    /**
+     * 开始统计
+     */
+    fun start() {
+        if (startTime == 0L) {
+            startTime = System.currentTimeMillis()
+        }
+        enabled = true
+    }
+
+    /**
+     * 停止统计（保留已有数据）
+     */
+    fun stop() {
+        enabled = false
+    }
+
+    /**
+     * 清空数据
+     */
+    fun reset() {
+        actions.clear()
+        scripts.clear()
+        startTime = if (enabled) System.currentTimeMillis() else 0L
+    }
+
+    /**
+     * 统计动作的异步执行（由 [ParsedAction.process] 调用）
+     */
+    @JvmStatic
+    fun <T> process(action: ParsedAction<*>, func: Supplier<CompletableFuture<T>>): CompletableFuture<T> {
+        return record(stats(actions, action.id), func)
+    }
+
+    /**
+     * 统计动作的同步执行（由 [ParsedAction.call] 调用）
+     */
+    @JvmStatic
+    fun <T> call(action: ParsedAction<*>, func: Supplier<T>): T {
+        val stats = stats(actions, action.id)
+        val start = System.nanoTime()
+        try {
+            return func.get()
+        } finally {
+            val time = System.nanoTime() - start
+            stats.invoke(time)
+            stats.complete(time)
+        }
+    }
+
+    /**
+     * 统计脚本的执行
+     *
+     * @param name 脚本名称
+     */
+    fun <T> script(name: String, func: Supplier<CompletableFuture<T>>): CompletableFuture<T> {
+        val key = if (scripts.size < maximumScripts || scripts.containsKey(name)) name else OTHER
+        return record(stats(scripts, key), func)
+    }
+
+    /**
+     * 获取脚本的统计名称，临时脚本（[KetherShell]）使用其源码
+     */
+    fun nameOf(script: Script): String {
+        if (!script.id.startsWith("temp_")) {
+            return script.id
+        }
+        val content = (script as? SimpleQuest)?.content ?: return "temp"
+        var source = String(content).replace('\n', ' ').trim()
+        if (source.startsWith("def main = { ") && source.endsWith(" }")) {
+            source = source.substring(13, source.length - 2)
+        }
+        return if (source.length > 64) "shell: ${source.substring(0, 61)}..." else "shell: $source"
+    }
+
+    /**
+     * 动作统计快照，按总耗时排序
+     */
+    fun actions(): List<Snapshot> {
+        return actions.values.map { it.snapshot() }.sortedByDescending { it.totalTime }
+    }
+
+    /**
+     * 脚本统计快照，按总耗时排序
+     */
+    fun scripts(): List<Snapshot> {
+        return scripts.values.map { it.snapshot() }.sortedByDescending { it.totalTime }
+    }
+
+    /**
+     * 导出统计快照（CSV）
+     *
+     * @param file 文件，默认为插件目录下的 `profiler/kether-时间.csv`
+     */
+    fun export(file: File = defaultFile()): File {
+        file.parentFile?.mkdirs()
+        file.bufferedWriter().use { writer ->
+            writer.write("type,id,invocations,total_ms,avg_us,max_us,completions,avg_latency_us,max_latency_us")
+            writer.newLine()
+            fun write(type: String, list: List<Snapshot>) {
+                list.forEach {
+                    writer.write("$type,\"${it.id.replace("\"", "\"\"")}\",${it.invocations},${it.totalTime / 1_000_000.0},${it.averageTime / 1000.0},${it.maxTime / 1000.0},${it.completions},${it.averageLatency / 1000.0},${it.maxLatency / 1000.0}")
+                    writer.newLine()
+                }
+            }
+            write("action", actions())
+            write("script", scripts())
+        }
+        return file
+    }
+
+    private fun defaultFile(): File {
+        return File(getDataFolder(), "profiler/kether-${SimpleDateFormat("yyyyMMdd-HHmmss").format(Date())}.csv")
+    }
+
+    private fun stats(map: ConcurrentHashMap<String, Stats>, id: String): Stats {
+        // computeIfAbsent 在 Java 8 中即便命中也会加锁，因此先尝试 get
+        return map[id] ?: map.computeIfAbsent(id) { Stats(it) }
+    }
+
+    private fun <T> record(stats: Stats, func: Supplier<CompletableFuture<T>>): CompletableFuture<T> {
+        val start = System.nanoTime()
+        val future: CompletableFuture<T>
+        try {
+            future = func.get()
+        } finally {
+            stats.invoke(System.nanoTime() - start)
+        }
+        if (future.isDone) {
+            stats.complete(System.nanoTime() - start)
+        } else {
+            future.whenComplete { _, _ -> stats.complete(System.nanoTime() - start) }
+        }
+        return future
+    }
+
+    /** 统计数据 */
+    class Stats(val id: String) {
+
+        val invocations = LongAdder()
+        val totalTime = LongAdder()
+        val maxTime = LongAccumulator({ a, b -> maxOf(a, b) }, 0L)
+        val completions = LongAdder()
+        val totalLatency = LongAdder()
+        val maxLatency = LongAccumulator({ a, b -> maxOf(a, b) }, 0L)
+
+        fun invoke(time: Long) {
+            invocations.increment()
+            totalTime.add(time)
+            maxTime.accumulate(time)
+        }
+
+        fun complete(latency: Long) {
+            completions.increment()
+            totalLatency.add(latency)
+            maxLatency.accumulate(latency)
+        }
+
+        fun snapshot(): Snapshot {
+            return Snapshot(id, invocations.sum(), totalTime.sum(), maxTime.get(), completions.sum(), totalLatency.sum(), maxLatency.get())
+        }
+    }
+
+    /** 统计快照，时间单位为纳秒 */
+    data class Snapshot(
+        val id: String,
+        val invocations: Long,
+        val totalTime: Long,
+        val maxTime: Long,
+        val completions: Long,
+        val totalLatency: Long,
+        val maxLatency: Long,
+    ) {
+
+        val averageTime: Long
+            get() = if (invocations == 0L) 0L else totalTime / invocations
+
+        val averageLatency: Long
+            get() = if (completions == 0L) 0L else totalLatency / completions
+    }
+}
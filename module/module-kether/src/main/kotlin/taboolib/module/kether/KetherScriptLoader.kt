@@ -50,9 +50,10 @@ class KetherScriptLoader : SimpleQuestLoader() {
                     val token = nextToken()
                     if (token.isNotEmpty() && token[token.length - 1] == ']' && token.indexOf('[') in 1 until token.length) {
                         val i = token.indexOf('[')
-                        wrap(ActionProperty.Get(wrap(ActionGet<Any>(token.substring(0, i))), token.substring(i + 1, token.length - 1))) as ParsedAction<T>
+                        val name = token.substring(0, i)
+                        wrap(ActionProperty.Get(wrap(ActionGet<Any>(name, slot(name))), token.substring(i + 1, token.length - 1))) as ParsedAction<T>
                     } else {
-                        wrap(ActionGet(token))
+                        wrap(ActionGet(token, slot(token)))
                     }
                 }
                 '*' -> {
@@ -69,7 +70,7 @@ class KetherScriptLoader : SimpleQuestLoader() {
                         val optional = service.registry.getParser(element, namespace)
                         if (optional.isPresent) {
                             val propertyKey = token.substring(i + 1, token.length - 1)
-                            return wrap(ActionProperty.Get(wrap(optional.get().resolve<Any>(this)), propertyKey)) as ParsedAction<T>
+                            return wrap(ActionProperty.Get(wrap(optional.get().resolve<Any>(this)).also { it.id = element }, propertyKey)) as ParsedAction<T>
                         } else if (Kether.isAllowToleranceParser) {
                             val propertyKey = token.substring(i + 1, token.length - 1)
                             return wrap(ActionProperty.Get(wrap(ActionLiteral<Any>(element, true)), propertyKey)) as ParsedAction<T>
@@ -78,7 +79,7 @@ class KetherScriptLoader : SimpleQuestLoader() {
                     } else {
                         val optional = service.registry.getParser(token, namespace)
                         if (optional.isPresent) {
-                            return wrap(optional.get().resolve(this))
+                            return wrap(optional.get().resolve<T>(this)).also { it.id = token }
                         } else if (Kether.isAllowToleranceParser) {
                             return wrap(ActionLiteral(token, true))
                         }
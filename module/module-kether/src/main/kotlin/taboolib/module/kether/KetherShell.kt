@@ -1,19 +1,31 @@
 package taboolib.module.kether
 
 import taboolib.common.platform.ProxyCommandSender
+import java.lang.ref.SoftReference
+import java.util.WeakHashMap
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
 
 object KetherShell {
 
     val mainCache = Cache()
 
+    /** [runAll] 使用的上下文池，脚本被回收或内存不足时释放 */
+    private val runAllPools = WeakHashMap<Script, SoftReference<ScriptContextPool>>()
+
+    private fun poolOf(script: Script): ScriptContextPool {
+        return synchronized(runAllPools) {
+            runAllPools[script]?.get() ?: ScriptContextPool(script).also { runAllPools[script] = SoftReference(it) }
+        }
+    }
+
     fun eval(source: List<String>, options: ScriptOptions = ScriptOptions()): CompletableFuture<Any?> {
         return eval(source.joinToString("\n"), options)
     }
 
     fun eval(source: String, options: ScriptOptions = ScriptOptions()): CompletableFuture<Any?> {
-        fun process() = eval(source, options.useCache, options.namespace, options.cache, options.sender, options.vars, options.context)
+        fun process() = eval(source, options.useCache, options.namespace, options.cache, options.sender, options.vars, options.contextFunction)
         return if (options.sandbox) runKether(detailError = options.detailError) { process() } ?: CompletableFuture.completedFuture(null) else process()
     }
 
@@ -50,19 +62,132 @@ object KetherShell {
         vars: VariableMap? = null,
         context: ScriptContext.() -> Unit = {},
     ): CompletableFuture<Any?> {
+        var vars = vars
+        var source = source
+        // 规范化脚本，将每次调用不同的部分提取为变量
+        val canonicalizer = cache.canonicalizer
+        if (cacheScript && canonicalizer != null) {
+            vars = VariableMap(vars?.map ?: emptyMap())
+            source = canonicalizer(source, vars.map)
+        }
         val s = if (source.startsWith("def ")) source else "def main = { $source }"
-        val script = if (cacheScript) cache.scriptMap.computeIfAbsent(s) {
+        val script = if (cacheScript) cache.get(s) {
             it.parseKetherScript(namespace)
         } else {
             s.parseKetherScript(namespace)
         }
-        return ScriptContext.create(script).also {
+        return run(script, sender, vars, context)
+    }
+
+    /**
+     * 运行已解析的脚本
+     */
+    fun run(
+        script: Script,
+        sender: ProxyCommandSender? = null,
+        vars: VariableMap? = null,
+        context: ScriptContext.() -> Unit = {},
+    ): CompletableFuture<Any?> {
+        val scriptContext = ScriptContext.create(script).also {
             if (sender != null) {
                 it.sender = sender
             }
             vars?.map?.forEach { (k, v) -> it.rootFrame().variables()[k] = v }
             context(it)
-        }.runActions()
+        }
+        if (KetherProfiler.enabled) {
+            return KetherProfiler.script(KetherProfiler.nameOf(script)) { scriptContext.runActions() }
+        }
+        return scriptContext.runActions()
+    }
+
+    /**
+     * 以多个执行者批量运行同一个脚本，结果按 [senders] 的顺序返回
+     *
+     * 所有执行共享同一个解析结果与 [ScriptContextPool]，[vars] 为所有执行共享的变量。
+     * 执行失败的脚本会输出错误信息，对应的结果为 null。
+     *
+     * @param parallel 是否在 [ScriptSchedulerExecutor.worker] 中并行执行（即开启 [ScriptContext.offload]）。
+     * 仅对线程安全的脚本（[taboolib.library.kether.Quest.isThreadSafe]，即所有动作的 [taboolib.library.kether.ParsedAction.isMainThread] 均为 false）生效，
+     * 包含需要主线程的动作（包括未声明的第三方动作）的脚本仍在当前线程中依次执行，以免每个动作都等待一次主线程调度。
+     * 注意 [context] 与 [vars] 中的对象会在工作线程中被访问，不能依赖主线程
+     */
+    fun runAll(
+        script: Script,
+        senders: Collection<ProxyCommandSender?>,
+        vars: Map<String, Any?> = emptyMap(),
+        parallel: Boolean = false,
+        context: ScriptContext.() -> Unit = {},
+    ): CompletableFuture<List<Any?>> {
+        val list = senders as? List<ProxyCommandSender?> ?: senders.toList()
+        return runAll(script, list.size, parallel) { i ->
+            list[i]?.let { sender = it }
+            vars.forEach { (k, v) -> this[k] = v }
+            context(this)
+        }
+    }
+
+    /**
+     * 以多组变量批量运行同一个脚本，结果按 [varSets] 的顺序返回
+     *
+     * @param vars 所有执行共享的变量，[varSets] 中的同名变量优先
+     * @see runAll
+     */
+    fun runAll(
+        script: Script,
+        varSets: List<Map<String, Any?>>,
+        sender: ProxyCommandSender? = null,
+        vars: Map<String, Any?> = emptyMap(),
+        parallel: Boolean = false,
+        context: ScriptContext.() -> Unit = {},
+    ): CompletableFuture<List<Any?>> {
+        return runAll(script, varSets.size, parallel) { i ->
+            sender?.let { this.sender = it }
+            vars.forEach { (k, v) -> this[k] = v }
+            varSets[i].forEach { (k, v) -> this[k] = v }
+            context(this)
+        }
+    }
+
+    private fun runAll(script: Script, size: Int, parallel: Boolean, bind: ScriptContext.(Int) -> Unit): CompletableFuture<List<Any?>> {
+        if (size == 0) {
+            return CompletableFuture.completedFuture(emptyList())
+        }
+        val pool = poolOf(script)
+        val offload = parallel && script.isThreadSafe
+        val results = arrayOfNulls<Any?>(size)
+        fun runRange(from: Int, to: Int): CompletableFuture<Void> {
+            val futures = ArrayList<CompletableFuture<*>>(to - from)
+            for (i in from until to) {
+                try {
+                    futures += pool.eval {
+                        this.offload = offload
+                        bind(i)
+                    }.handle { value, ex ->
+                        if (ex != null) {
+                            (ex.cause ?: ex).printKetherErrorMessage()
+                        } else {
+                            results[i] = value
+                        }
+                    }
+                } catch (ex: Throwable) {
+                    ex.printKetherErrorMessage()
+                }
+            }
+            return CompletableFuture.allOf(*futures.toTypedArray())
+        }
+        val future = if (offload) {
+            // 按处理器数量分段，每段在同一个工作线程中执行，以便复用该线程中的上下文
+            val chunks = minOf(size, Runtime.getRuntime().availableProcessors())
+            val step = (size + chunks - 1) / chunks
+            val futures = (0 until size step step).map { from ->
+                CompletableFuture.supplyAsync({ runRange(from, minOf(from + step, size)) }, ScriptSchedulerExecutor.worker).thenCompose { it }
+            }
+            CompletableFuture.allOf(*futures.toTypedArray())
+        } else {
+            runRange(0, size)
+        }
+        return future.thenApply { results.toList() }
     }
 
     /** 临时变量容器 */
@@ -73,9 +198,146 @@ object KetherShell {
         constructor(vararg map: Pair<String, Any?>) : this(map.toMap())
     }
 
-    /** 脚本缓存容器 */
-    class Cache {
+    /**
+     * 脚本缓存容器
+     *
+     * 按最近最少使用（LRU）的顺序淘汰，脚本数量不超过 [maximumSize]，源码总长度不超过 [maximumWeight]。
+     *
+     * @param maximumSize 最大脚本数量
+     * @param maximumWeight 最大源码总长度（字符）
+     */
+    class Cache(val maximumSize: Int = 1024, val maximumWeight: Long = 1024 * 1024) {
+
+        private val map = LinkedHashMap<String, Script>(16, 0.75f, true)
+        private var weight = 0L
 
-        val scriptMap = ConcurrentHashMap<String, Script>()
+        private val hits = AtomicLong()
+        private val misses = AtomicLong()
+        private val evictions = AtomicLong()
+
+        /**
+         * 规范化函数
+         * 在查询缓存之前调用，可以将脚本中每次调用都不同的部分（玩家名称、数值等）替换为变量引用并写入变量表，
+         * 使相同结构的脚本共享同一个缓存。
+         *
+         * ```
+         * cache.canonicalizer = { source, vars ->
+         *     vars["name"] = ...
+         *     source.replace(..., "&name")
+         * }
+         * ```
+         */
+        var canonicalizer: ((source: String, vars: MutableMap<String, Any?>) -> String)? = null
+
+        /**
+         * 缓存的副本，写入操作（put、putIfAbsent、computeIfAbsent、remove、clear）会同步到缓存中
+         */
+        @Deprecated("use get(source, loader), invalidate(source) or invalidateAll() instead")
+        val scriptMap: ConcurrentHashMap<String, Script>
+            get() = ScriptMapView()
+
+        /** 获取缓存的脚本，不存在时通过 loader 解析 */
+        fun get(source: String, loader: (String) -> Script): Script {
+            synchronized(map) {
+                val script = map[source]
+                if (script != null) {
+                    hits.incrementAndGet()
+                    return script
+                }
+            }
+            misses.incrementAndGet()
+            // 在锁外解析
+            val script = loader(source)
+            put(source, script)
+            return script
+        }
+
+        private fun put(source: String, script: Script) {
+            synchronized(map) {
+                if (map.put(source, script) == null) {
+                    weight += source.length
+                }
+                evict()
+            }
+        }
+
+        /** 移除缓存 */
+        fun invalidate(source: String) {
+            synchronized(map) {
+                if (map.remove(source) != null) {
+                    weight -= source.length
+                }
+            }
+        }
+
+        /** 移除所有缓存 */
+        fun invalidateAll() {
+            synchronized(map) {
+                map.clear()
+                weight = 0
+            }
+        }
+
+        /** 获取统计信息 */
+        fun stats(): Stats {
+            return synchronized(map) { Stats(map.size, weight, hits.get(), misses.get(), evictions.get()) }
+        }
+
+        private fun evict() {
+            val iterator = map.entries.iterator()
+            // 至少保留最近写入的脚本
+            while ((map.size > maximumSize || weight > maximumWeight) && map.size > 1 && iterator.hasNext()) {
+                weight -= iterator.next().key.length
+                iterator.remove()
+                evictions.incrementAndGet()
+            }
+        }
+
+        /** 兼容旧版本的 [scriptMap] */
+        private inner class ScriptMapView : ConcurrentHashMap<String, Script>() {
+
+            init {
+                synchronized(map) { map.forEach { (k, v) -> super.put(k, v) } }
+            }
+
+            override fun put(key: String, value: Script): Script? {
+                this@Cache.put(key, value)
+                return super.put(key, value)
+            }
+
+            override fun putIfAbsent(key: String, value: Script): Script? {
+                val previous = super.putIfAbsent(key, value)
+                if (previous == null) {
+                    this@Cache.put(key, value)
+                }
+                return previous
+            }
+
+            override fun computeIfAbsent(key: String, mappingFunction: java.util.function.Function<in String, out Script>): Script {
+                return super.get(key) ?: this@Cache.get(key) { mappingFunction.apply(it) }.also { super.put(key, it) }
+            }
+
+            override fun remove(key: String): Script? {
+                invalidate(key)
+                return super.remove(key)
+            }
+
+            override fun clear() {
+                invalidateAll()
+                super.clear()
+            }
+        }
+
+        /** 缓存统计信息 */
+        class Stats(val size: Int, val weight: Long, val hits: Long, val misses: Long, val evictions: Long) {
+
+            /** 命中率 */
+            val hitRate: Double
+                get() = if (hits + misses == 0L) 0.0 else hits.toDouble() / (hits + misses)
+
+            override fun toString(): String {
+                return "size=$size, weight=$weight, hits=$hits, misses=$misses, evictions=$evictions, hitRate=${"%.2f".format(hitRate * 100)}%"
+            }
+        }
     }
 }
\ No newline at end of file
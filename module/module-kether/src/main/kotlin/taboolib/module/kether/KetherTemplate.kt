@@ -0,0 +1,193 @@
+package taboolib.module.kether
+
+/**
+ * TabooLib
+ * taboolib.module.kether.KetherTemplate
+ *
+ * 预编译的内联脚本模板
+ *
+ * 与 [KetherFunction.parse] 相同的 `{{ }}` 语法（支持嵌套与 `\{{`、`\}}` 转义），
+ * 但只在编译时解析一次：模板被拆分为文本片段与预先解析的 [Script]，渲染时依次写入同一个 [StringBuilder]。
+ * 适用于每 tick 渲染相同内容的计分板、全息图等。
+ *
+ * ```
+ * val template = KetherTemplate.compile("your health {{player health}}, your name {{player name}}")
+ * template.render(ScriptOptions(sender = player))
+ * ```
+ *
+ * 嵌套的 `{{ }}` 中，内层的结果会作为外层脚本的一部分，因此外层脚本只能在渲染时解析（通过 [KetherShell.Cache] 缓存）。
+ * 与 [KetherFunction.parse] 不同的是，脚本的返回值不会再被当作模板解析。
+ */
+class KetherTemplate private constructor(val source: String, private val parts: List<Part>) {
+
+    /** 是否为纯文本（不包含脚本） */
+    val isConstant: Boolean
+        get() = parts.all { it is Part.Text }
+
+    /**
+     * 渲染模板
+     */
+    fun render(options: ScriptOptions = ScriptOptions()): String {
+        return render(StringBuilder(source.length), options).toString()
+    }
+
+    /**
+     * 渲染模板并写入 [builder]
+     */
+    fun render(builder: StringBuilder, options: ScriptOptions = ScriptOptions()): StringBuilder {
+        if (options.sandbox) {
+            val length = builder.length
+            runKether(detailError = options.detailError) { parts.forEach { it.render(builder, options) } } ?: run {
+                builder.setLength(length)
+                builder.append("ERROR")
+            }
+        } else {
+            parts.forEach { it.render(builder, options) }
+        }
+        return builder
+    }
+
+    override fun toString(): String {
+        return "KetherTemplate(source='$source')"
+    }
+
+    /** 模板片段 */
+    private sealed class Part {
+
+        abstract fun render(builder: StringBuilder, options: ScriptOptions)
+
+        /** 文本 */
+        class Text(val text: String) : Part() {
+
+            override fun render(builder: StringBuilder, options: ScriptOptions) {
+                builder.append(text)
+            }
+        }
+
+        /** 预先解析的脚本 */
+        class Static(val script: Script) : Part() {
+
+            override fun render(builder: StringBuilder, options: ScriptOptions) {
+                builder.append(KetherShell.run(script, options.sender, options.vars, options.contextFunction).getNow(null).toString())
+            }
+        }
+
+        /** 包含嵌套模板的脚本，渲染后作为脚本执行 */
+        class Dynamic(val parts: List<Part>) : Part() {
+
+            override fun render(builder: StringBuilder, options: ScriptOptions) {
+                val source = StringBuilder()
+                parts.forEach { it.render(source, options) }
+                val result = KetherShell.eval(
+                    source.toString(), options.useCache, options.namespace, options.cache, options.sender, options.vars, options.contextFunction
+                ).getNow(null)
+                builder.append(result.toString())
+            }
+        }
+    }
+
+    /** 模板编译器 */
+    private class Compiler(val source: String, val namespace: List<String>) {
+
+        /**
+         * 读取片段直到结束符号
+         *
+         * @param from 开始位置
+         * @param nested 是否在 `{{ }}` 中
+         * @return 片段及结束位置，在 `{{ }}` 中且没有结束符号时返回 null
+         */
+        fun read(from: Int, nested: Boolean): Pair<List<Part>, Int>? {
+            val parts = ArrayList<Part>()
+            val text = StringBuilder()
+            var i = from
+            while (i < source.length) {
+                when {
+                    source.startsWith("\\$START", i) -> {
+                        text.append(START)
+                        i += START.length + 1
+                    }
+                    source.startsWith("\\$END", i) -> {
+                        text.append(END)
+                        i += END.length + 1
+                    }
+                    source.startsWith(START, i) -> {
+                        val body = read(i + START.length, true)
+                        // 没有结束符号则视为文本
+                        if (body == null) {
+                            text.append(START)
+                            i += START.length
+                        } else {
+                            if (text.isNotEmpty()) {
+                                parts += Part.Text(text.toString())
+                                text.setLength(0)
+                            }
+                            parts += script(body.first)
+                            i = body.second
+                        }
+                    }
+                    nested && source.startsWith(END, i) -> {
+                        if (text.isNotEmpty()) {
+                            parts += Part.Text(text.toString())
+                        }
+                        return parts to i + END.length
+                    }
+                    else -> {
+                        text.append(source[i])
+                        i++
+                    }
+                }
+            }
+            if (nested) {
+                return null
+            }
+            if (text.isNotEmpty()) {
+                parts += Part.Text(text.toString())
+            }
+            return parts to i
+        }
+
+        /** 将 `{{ }}` 中的内容编译为脚本 */
+        fun script(parts: List<Part>): Part {
+            if (parts.any { it !is Part.Text }) {
+                return Part.Dynamic(parts)
+            }
+            val body = parts.joinToString("") { (it as Part.Text).text }
+            val source = if (body.startsWith("def ")) body else "def main = { $body }"
+            return Part.Static(source.parseKetherScript(namespace))
+        }
+    }
+
+    companion object {
+
+        private const val START = "{{"
+        private const val END = "}}"
+
+        /**
+         * 编译模板
+         *
+         * @param source 模板
+         * @param namespace 命名空间
+         */
+        fun compile(source: String, namespace: List<String> = emptyList()): KetherTemplate {
+            return KetherTemplate(source, Compiler(source, namespace).read(0, false)!!.first)
+        }
+
+        /**
+         * 编译多行模板
+         */
+        fun compile(source: List<String>, namespace: List<String> = emptyList()): List<KetherTemplate> {
+            return source.map { compile(it, namespace) }
+        }
+    }
+}
+
+/**
+ * 批量渲染模板，共用同一个 [StringBuilder]
+ */
+fun List<KetherTemplate>.render(options: ScriptOptions = ScriptOptions()): List<String> {
+    val builder = StringBuilder()
+    return map {
+        builder.setLength(0)
+        it.render(builder, options).toString()
+    }
+}
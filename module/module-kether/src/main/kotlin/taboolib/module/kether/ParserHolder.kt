@@ -13,7 +13,8 @@ object ParserHolder {
     fun any(): Parser<Any?> {
         return Parser.frame { r ->
             val action = r.nextParsedAction()
-            Action { it.run(action) }
+            val async = Action { it.run(action) }
+            if (action.isSync) Action.sync(async) { action.call(it) } else async
         }
     }
 
@@ -22,7 +23,9 @@ object ParserHolder {
     fun anyAsList(): Parser<MutableList<Any?>> {
         return Parser.frame { r ->
             val action = r.nextParsedAction()
-            Action { it.run(action).thenApply { obj -> if (obj is MutableList<*>) obj as MutableList<Any?> else mutableListOf(obj) } }
+            val transfer = { obj: Any? -> if (obj is MutableList<*>) obj as MutableList<Any?> else mutableListOf(obj) }
+            val async = Action { it.run(action).thenApply(transfer) }
+            if (action.isSync) Action.sync(async) { transfer(action.call(it)) } else async
         }
     }
 
@@ -35,11 +38,17 @@ object ParserHolder {
     /** 取特定类型 */
     inline fun <reified T> type(): Parser<T> = any().map { it as T }
 
-    /** 取动作 */
-    fun action(): Parser<ParsedAction<*>> = Parser.of { it.nextParsedAction() }
+    /** 取动作（不可同步执行的动作会使上层动作同样不可同步执行） */
+    fun action(): Parser<ParsedAction<*>> = Parser.frame { r ->
+        val action = r.nextParsedAction()
+        if (action.isSync) Action.point(action) else Action<ParsedAction<*>> { CompletableFuture.completedFuture(action) }
+    }
 
-    /** 取动作列表 */
-    fun actionList(): Parser<MutableList<ParsedAction<*>>> = Parser.of { it.next(ArgTypes.listOf(ArgTypes.ACTION)) }
+    /** 取动作列表（不可同步执行的动作会使上层动作同样不可同步执行） */
+    fun actionList(): Parser<MutableList<ParsedAction<*>>> = Parser.frame { r ->
+        val actions = r.next(ArgTypes.listOf(ArgTypes.ACTION))
+        if (actions.all { it.isSync }) Action.point(actions) else Action<MutableList<ParsedAction<*>>> { CompletableFuture.completedFuture(actions) }
+    }
 
     /** 取文本（固定的）*/
     fun symbol(): Parser<String> = Parser.of { it.nextToken() }
@@ -64,7 +73,16 @@ object ParserHolder {
 
     /** 运行并返回结果 */
     fun <T> now(action: ScriptFrame.() -> T): Action<T> {
-        return Action { CompletableFuture.completedFuture(action(it)) }
+        return Action.sync { action(it) }
+    }
+
+    /** 运行动作并返回结果，动作可同步执行时在同步模式下直接调用 */
+    fun execute(action: ParsedAction<*>?): Action<Any?> {
+        return when {
+            action == null -> Action.point<Any?>(null)
+            action.isSync -> Action.sync({ it.run(action) }) { action.call(it) }
+            else -> Action { it.run(action) }
+        }
     }
 
     /** 运行并返回回调函数 */
@@ -2,7 +2,12 @@ package taboolib.module.kether
 
 import taboolib.common.platform.ProxyCommandSender
 import taboolib.common.platform.function.adaptCommandSender
+import taboolib.common.platform.function.isPrimaryThread
 import taboolib.library.kether.AbstractQuestContext
+import taboolib.library.kether.ParsedAction
+import taboolib.library.kether.VarSlots
+import java.util.concurrent.ConcurrentLinkedDeque
+import java.util.concurrent.Executor
 
 /**
  * Adyeshach
@@ -15,18 +20,30 @@ open class ScriptContext(service: ScriptService, script: Script) : AbstractQuest
 
     var id = "null"
 
+    /**
+     * 是否将不需要主线程的动作交给工作线程执行
+     *
+     * 开启后脚本在 [ScriptSchedulerExecutor.worker] 中开始执行，只有声明线程安全（[ParsedAction.isMainThread] 为 false）的动作留在工作线程，
+     * 其余动作（包括未声明的第三方动作）都会切换到主线程，因此 [runActions] 返回的 CompletableFuture 不会立即完成。
+     * 开启时不会使用同步执行，否则无法在动作之间切换线程。
+     */
+    var offload = false
+
+    /** 获取该上下文时所在线程的 [ScriptContextPool] 池，放回时使用 */
+    internal var pooledIn: ConcurrentLinkedDeque<ScriptContext>? = null
+
     /** 脚本执行者 */
     var sender: ProxyCommandSender?
-        get() = get<Any?>("@Sender")?.let { adaptCommandSender(it) }
+        get() = rootFrame().variables().get<Any?>(VarSlots.SENDER).orElse(null)?.let { adaptCommandSender(it) }
         set(value) {
-            this["@Sender"] = value?.origin
+            rootFrame().variables()[VarSlots.SENDER] = value?.origin
         }
 
     /** 是否跳出循环 */
     var breakLoop: Boolean
-        get() = get<Boolean>("@BreakLoop") == true
+        get() = rootFrame().variables().get<Boolean>(VarSlots.BREAK_LOOP).orElse(null) == true
         set(value) {
-            this["@BreakLoop"] = value
+            rootFrame().variables()[VarSlots.BREAK_LOOP] = value
         }
 
     /** 设置变量 */
@@ -39,6 +56,34 @@ open class ScriptContext(service: ScriptService, script: Script) : AbstractQuest
         return rootFrame().variables().get<T>(key).orElse(def)
     }
 
+    /** 开启 [offload] 时逐个动作调度，不使用同步执行 */
+    override fun isAllowSync(): Boolean {
+        return super.isAllowSync() && !offload
+    }
+
+    /** 开启 [offload] 时从主线程转移到工作线程中开始执行 */
+    override fun startExecutor(): Executor? {
+        return if (offload && isPrimaryThread) ScriptSchedulerExecutor.worker else null
+    }
+
+    /** 只在线程需求改变时切换：主线程动作回到主线程，其他动作交给工作线程 */
+    override fun executorFor(action: ParsedAction<*>): Executor? {
+        if (!offload) {
+            return null
+        }
+        return when {
+            action.isMainThread -> if (isPrimaryThread) null else ScriptSchedulerExecutor
+            else -> if (isPrimaryThread) ScriptSchedulerExecutor.worker else null
+        }
+    }
+
+    /** 重置上下文，见 [ScriptContextPool] */
+    override fun reset() {
+        super.reset()
+        id = "null"
+        offload = false
+    }
+
     /** 创建脚本执行器 */
     override fun createExecutor(): ScriptSchedulerExecutor {
         return ScriptSchedulerExecutor
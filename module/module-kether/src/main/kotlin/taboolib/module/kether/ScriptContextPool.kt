@@ -0,0 +1,79 @@
+package taboolib.module.kether
+
+import taboolib.common.platform.ProxyCommandSender
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedDeque
+
+/**
+ * TabooLib
+ * taboolib.module.kether.ScriptContextPool
+ *
+ * 可复用的脚本上下文池
+ *
+ * 每次执行 [KetherShell.eval] 都会创建新的 [ScriptContext]（执行器、根 Frame、变量表），
+ * 对于在每次移动、受伤事件中执行的条件判断，这会产生大量的临时对象。
+ * 上下文池为每个线程保留若干个绑定到同一脚本的上下文，执行完毕后重置并放回池中。
+ *
+ * ```
+ * val pool = ScriptContextPool("check".parseKetherScript())
+ * pool.eval(sender, mapOf("damage" to damage))
+ * ```
+ *
+ * 仍在执行中（如包含 `wait`）的上下文不会被放回池中。
+ * 上下文总是放回获取它的线程的池中，即使脚本在其他线程中执行完毕。
+ *
+ * @param script 脚本
+ * @param maximumSize 每个线程保留的上下文数量
+ */
+class ScriptContextPool(val script: Script, val maximumSize: Int = 4) {
+
+    private val pool = ThreadLocal.withInitial { ConcurrentLinkedDeque<ScriptContext>() }
+
+    /**
+     * 获取上下文，使用完毕后通过 [release] 放回
+     */
+    fun acquire(): ScriptContext {
+        val deque = pool.get()
+        return (deque.pollLast() ?: ScriptContext.create(script)).also { it.pooledIn = deque }
+    }
+
+    /**
+     * 获取上下文并绑定执行者与变量
+     */
+    fun acquire(sender: ProxyCommandSender?, vars: Map<String, Any?> = emptyMap()): ScriptContext {
+        val context = acquire()
+        if (sender != null) {
+            context.sender = sender
+        }
+        vars.forEach { (k, v) -> context[k] = v }
+        return context
+    }
+
+    /**
+     * 重置上下文并放回获取它的线程的池中
+     */
+    fun release(context: ScriptContext) {
+        if (context.getQuest() !== script || !context.isReusable) {
+            return
+        }
+        val deque = context.pooledIn ?: return
+        context.pooledIn = null
+        if (deque.size < maximumSize) {
+            context.reset()
+            deque.addLast(context)
+        }
+    }
+
+    /**
+     * 获取上下文并执行脚本，执行完毕后放回池中
+     */
+    fun eval(sender: ProxyCommandSender? = null, vars: Map<String, Any?> = emptyMap(), context: ScriptContext.() -> Unit = {}): CompletableFuture<Any?> {
+        val scriptContext = acquire(sender, vars).also(context)
+        val future = if (KetherProfiler.enabled) {
+            KetherProfiler.script(KetherProfiler.nameOf(script)) { scriptContext.runActions() }
+        } else {
+            scriptContext.runActions()
+        }
+        return future.whenComplete { _, _ -> release(scriptContext) }
+    }
+}
@@ -18,10 +18,20 @@ class ScriptOptions(
     var sandbox: Boolean = false,
     var detailError: Boolean = false,
     var context: ScriptContext.() -> Unit = {},
+    var sync: Boolean = true,
+    var offload: Boolean = false,
 ) {
 
     val vars = KetherShell.VariableMap(hashMapOf())
 
+    /** 包含同步模式与线程设置的上下文回调函数 */
+    internal val contextFunction: ScriptContext.() -> Unit
+        get() = if (sync && !offload) context else ({
+            isAllowSync = sync
+            offload = this@ScriptOptions.offload
+            context(this)
+        })
+
     class ScriptOptionsBuilder {
 
         private val options = ScriptOptions()
@@ -56,6 +66,12 @@ class ScriptOptions(
         /** 是否打印详细的错误信息 */
         fun detailError(value: Boolean = true) = apply { options.detailError = value }
 
+        /** 是否允许以同步模式执行（脚本不包含 wait、await 等异步动作时跳过 CompletableFuture 直接执行）*/
+        fun sync(value: Boolean = true) = apply { options.sync = value }
+
+        /** 是否将不需要主线程的动作交给工作线程执行（见 [ScriptContext.offload]）*/
+        fun offload(value: Boolean = true) = apply { options.offload = value }
+
         /** 上下文回调函数 */
         fun context(context: ScriptContext.() -> Unit) = apply { options.context = context }
 
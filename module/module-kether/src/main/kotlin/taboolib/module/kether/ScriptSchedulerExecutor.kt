@@ -1,16 +1,82 @@
 package taboolib.module.kether
 
+import taboolib.common.Inject
+import taboolib.common.LifeCycle
+import taboolib.common.platform.Awake
 import taboolib.common.platform.function.isPrimaryThread
 import taboolib.common.platform.function.submit
+import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 
+/**
+ * TabooLib
+ * taboolib.module.kether.ScriptSchedulerExecutor
+ *
+ * 脚本调度器
+ *
+ * 在主线程中直接执行，其他线程提交的任务进入队列，每 tick 只创建一个调度任务批量执行，而不是每个任务一个。
+ * [worker] 为工作线程池，用于执行不需要主线程的动作（见 [ScriptContext.offload]）。
+ */
+@Inject
 object ScriptSchedulerExecutor : Executor {
 
+    /** 工作线程数量（不支持虚拟线程时） */
+    var workerThreads = maxOf(2, Runtime.getRuntime().availableProcessors() / 2)
+
+    private val queue = ConcurrentLinkedQueue<Runnable>()
+    private val scheduled = AtomicBoolean(false)
+
+    @Volatile
+    private var workerExecutor: ExecutorService? = null
+
+    /**
+     * 工作线程池，Java 21 及以上使用虚拟线程
+     */
+    val worker: ExecutorService
+        get() = workerExecutor ?: synchronized(this) { workerExecutor ?: createWorker().also { workerExecutor = it } }
+
     override fun execute(command: Runnable) {
         if (isPrimaryThread) {
             command.run()
         } else {
-            submit { command.run() }
+            queue.offer(command)
+            if (scheduled.compareAndSet(false, true)) {
+                submit { drain() }
+            }
+        }
+    }
+
+    /**
+     * 执行本次调度前进入队列的任务，执行期间新提交的任务交给下一次调度
+     */
+    private fun drain() {
+        scheduled.set(false)
+        var size = queue.size
+        while (size-- > 0) {
+            val command = queue.poll() ?: break
+            try {
+                command.run()
+            } catch (ex: Throwable) {
+                ex.printStackTrace()
+            }
+        }
+    }
+
+    private fun createWorker(): ExecutorService {
+        try {
+            return Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) as ExecutorService
+        } catch (_: Throwable) {
         }
+        val index = AtomicInteger()
+        return Executors.newFixedThreadPool(workerThreads) { Thread(it, "Kether-Worker-${index.incrementAndGet()}").apply { isDaemon = true } }
+    }
+
+    @Awake(LifeCycle.DISABLE)
+    private fun shutdown() {
+        workerExecutor?.shutdown()
     }
-}
\ No newline at end of file
+}
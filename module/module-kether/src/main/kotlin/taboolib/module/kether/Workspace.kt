@@ -2,13 +2,22 @@ package taboolib.module.kether
 
 import com.google.common.collect.ImmutableList
 import com.google.common.collect.MultimapBuilder
+import taboolib.common.Inject
+import taboolib.common.LifeCycle
+import taboolib.common.io.digest
+import taboolib.common.platform.Awake
+import taboolib.common.platform.function.isPrimaryThread
+import taboolib.common.platform.function.submit
 import taboolib.common.platform.function.warning
 import taboolib.common5.Coerce
 import taboolib.library.kether.ExitStatus
-import taboolib.library.kether.Quest
 import java.io.File
 import java.nio.charset.StandardCharsets
+import java.nio.file.*
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.stream.Collectors
 
 /**
  * TabooLibKotlin
@@ -20,10 +29,17 @@ import java.util.concurrent.CompletableFuture
 @Suppress("UnstableApiUsage")
 class Workspace(val file: File, val extension: String = ".ks", val namespace: List<String> = emptyList()) {
 
-    val scripts = HashMap<String, Script>()
-    val scriptsSetting = HashMap<String, Map<String, Any?>>()
+    val scripts = ConcurrentHashMap<String, Script>()
+    val scriptsSetting = ConcurrentHashMap<String, Map<String, Any?>>()
     val runningScripts = MultimapBuilder.hashKeys().arrayListValues().build<String, ScriptContext>()!!
 
+    /** 已解析的脚本及其源码签名，签名未改变的脚本不会重新解析 */
+    private val loaded = ConcurrentHashMap<String, Loaded>()
+
+    /** 文件监听服务 */
+    @Volatile
+    private var watchService: WatchService? = null
+
     fun loadAll() {
         loadScripts()
         loadSettings()
@@ -36,46 +52,199 @@ class Workspace(val file: File, val extension: String = ".ks", val namespace: Li
 
     fun loadSettings() {
         scriptsSetting.clear()
-        scripts.values.forEach { quest ->
-            val context = ScriptContext.create(quest)
-            quest.getBlock("settings").ifPresent {
-                it.actions.forEach { action ->
-                    action.process(context.rootFrame())
-                }
+        scripts.values.forEach { loadSetting(it) }
+    }
+
+    private fun loadSetting(quest: Script) {
+        val context = ScriptContext.create(quest)
+        quest.getBlock("settings").ifPresent {
+            it.actions.forEach { action ->
+                action.process(context.rootFrame())
             }
-            scriptsSetting[quest.id] = context.rootFrame().deepVars()
         }
+        scriptsSetting[quest.id] = context.rootFrame().deepVars()
     }
 
+    /**
+     * 加载目录下的所有脚本
+     * 脚本在 ForkJoin 线程池中并行解析，源码未改变的脚本沿用上次的解析结果
+     */
     fun loadScripts() {
-        if (!file.exists()) {
-            file.mkdirs()
+        loadScripts(parseAll())
+    }
+
+    private fun loadScripts(scriptMap: Map<String, Script>) {
+        loaded.keys.retainAll(scriptMap.keys)
+        scripts.keys.retainAll(scriptMap.keys)
+        scripts.putAll(scriptMap)
+    }
+
+    /**
+     * 重新加载指定的文件
+     * 只重新解析改动过的脚本，已删除的文件将移除对应的脚本，正在运行的脚本不受影响
+     *
+     * 读取与解析在当前线程中完成，替换脚本、执行 settings 代码块与 autostart 脚本则在主线程中完成
+     */
+    fun reload(files: Collection<Path>) {
+        val folder = folder()
+        val exists = files.filter { Files.isRegularFile(it) && nameOf(folder, it).endsWith(extension) }
+        val removed = files.filter { Files.notExists(it) }.map { nameOf(folder, it) }
+        val scriptMap = parse(folder, exists)
+        primaryThread {
+            removed.forEach { name ->
+                loaded.remove(name)
+                scripts.remove(name)
+                scriptsSetting.remove(name)
+            }
+            scriptMap.forEach { (name, script) ->
+                val previous = scripts.put(name, script)
+                if (previous !== script) {
+                    loadSetting(script)
+                    // 新增的脚本
+                    if (previous == null && Coerce.toBoolean(scriptsSetting[name]?.get("autostart"))) {
+                        ScriptService.startQuest(ScriptContext.create(script))
+                    }
+                }
+            }
         }
-        scripts.clear()
-        val loader = KetherScriptLoader()
-        val folder = file.toPath()
-        val scriptMap = HashMap<String, Quest>()
-        if (java.nio.file.Files.notExists(folder)) {
-            java.nio.file.Files.createDirectories(folder)
+    }
+
+    /**
+     * 监听目录中的脚本改动并自动调用 [reload]
+     * 短时间内的多次改动会合并为一次重新加载
+     */
+    fun watch() {
+        synchronized(this) {
+            if (watchService != null) {
+                return
+            }
+            val folder = folder()
+            val service = folder.fileSystem.newWatchService()
+            register(service, folder)
+            watchService = service
+            watching += this
+            Thread({ watchLoop(service, folder) }, "Kether-Workspace-Watcher").apply { isDaemon = true }.start()
+        }
+    }
+
+    /** 停止监听 */
+    fun unwatch() {
+        synchronized(this) {
+            watchService?.close()
+            watchService = null
+            watching -= this
         }
-        val iterator = java.nio.file.Files.walk(folder).iterator()
-        while (iterator.hasNext()) {
-            val path = iterator.next()
-            if (!java.nio.file.Files.isDirectory(path)) {
+    }
+
+    private fun watchLoop(service: WatchService, folder: Path) {
+        try {
+            while (true) {
+                var key: WatchKey? = service.take()
+                val changed = HashSet<Path>()
+                var overflow = false
+                while (key != null) {
+                    val dir = key.watchable() as Path
+                    key.pollEvents().forEach { event ->
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true
+                            return@forEach
+                        }
+                        val path = dir.resolve(event.context() as Path)
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                            register(service, path)
+                            Files.walk(path).use { stream -> stream.filter { !Files.isDirectory(it) }.forEach { changed += it } }
+                        } else {
+                            changed += path
+                        }
+                    }
+                    key.reset()
+                    // 合并短时间内的改动（编辑器保存时通常会产生多个事件）
+                    key = service.poll(DEBOUNCE, TimeUnit.MILLISECONDS)
+                }
                 try {
-                    val name = folder.relativize(path).toString().replace(File.separatorChar, '.')
-                    if (name.endsWith(extension)) {
-                        val text = path.toFile().readText(StandardCharsets.UTF_8).lines()
-                        val bytes = text.mapNotNull { if (it.trim().startsWith("#")) null else it }.joinToString("\n").toByteArray(StandardCharsets.UTF_8)
-                        scriptMap[name] = loader.load(ScriptService, name, bytes, namespace)
+                    if (overflow) {
+                        // 事件丢失，重新解析整个目录
+                        val scriptMap = parseAll()
+                        primaryThread {
+                            loadScripts(scriptMap)
+                            loadSettings()
+                        }
+                    } else {
+                        reload(changed)
                     }
-                } catch (e: Exception) {
-                    warning("Unexpected exception while parsing kether script:")
-                    e.localizedMessage?.split('\n')?.forEach { warning(it) }
+                } catch (ex: Throwable) {
+                    ex.printStackTrace()
                 }
             }
+        } catch (_: ClosedWatchServiceException) {
+        } catch (_: InterruptedException) {
         }
-        scripts.putAll(scriptMap)
+    }
+
+    private fun register(service: WatchService, root: Path) {
+        Files.walk(root).use { stream ->
+            stream.filter { Files.isDirectory(it) }.forEach {
+                it.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE)
+            }
+        }
+    }
+
+    private fun folder(): Path {
+        if (!file.exists()) {
+            file.mkdirs()
+        }
+        return file.toPath()
+    }
+
+    /** 在主线程中执行，已处于主线程时直接执行 */
+    private fun primaryThread(func: () -> Unit) {
+        if (isPrimaryThread) func() else submit { func() }
+    }
+
+    private fun nameOf(folder: Path, path: Path): String {
+        return folder.relativize(path).toString().replace(File.separatorChar, '.')
+    }
+
+    /**
+     * 并行解析目录下的所有脚本
+     */
+    private fun parseAll(): Map<String, Script> {
+        val folder = folder()
+        val files = Files.walk(folder).use { stream ->
+            stream.filter { !Files.isDirectory(it) && nameOf(folder, it).endsWith(extension) }.collect(Collectors.toList())
+        }
+        return parse(folder, files)
+    }
+
+    /**
+     * 并行解析脚本，返回解析成功的脚本（包括签名未改变而沿用的脚本）
+     */
+    private fun parse(folder: Path, files: List<Path>): Map<String, Script> {
+        val errors = ConcurrentHashMap<String, Exception>()
+        val scriptMap = files.parallelStream().map { path ->
+            val name = nameOf(folder, path)
+            try {
+                val text = String(Files.readAllBytes(path), StandardCharsets.UTF_8)
+                val hash = text.digest("sha-1")
+                val cached = loaded[name]
+                if (cached != null && cached.hash == hash) {
+                    return@map name to cached.script
+                }
+                val bytes = text.lines().mapNotNull { if (it.trim().startsWith("#")) null else it }.joinToString("\n").toByteArray(StandardCharsets.UTF_8)
+                val script = KetherScriptLoader().load(ScriptService, name, bytes, namespace)
+                loaded[name] = Loaded(hash, script)
+                name to script
+            } catch (e: Exception) {
+                errors[name] = e
+                null
+            }
+        }.collect(Collectors.toList()).filterNotNull().toMap()
+        // 在当前线程中输出错误，避免不同脚本的错误信息交错
+        errors.values.forEach { e ->
+            warning("Unexpected exception while parsing kether script:")
+            e.localizedMessage?.split('\n')?.forEach { warning(it) }
+        }
+        return scriptMap
     }
 
     fun cancelAll() {
@@ -89,7 +258,8 @@ class Workspace(val file: File, val extension: String = ".ks", val namespace: Li
     fun runScript(id: String, context: ScriptContext): CompletableFuture<Any> {
         context.id = id
         runningScripts.put(id, context)
-        return context.runActions().also { it.thenRun{ runningScripts.remove(id, context) } }
+        val future = if (KetherProfiler.enabled) KetherProfiler.script("workspace: $id") { context.runActions() } else context.runActions()
+        return future.also { it.thenRun{ runningScripts.remove(id, context) } }
     }
 
     fun terminateScript(context: ScriptContext) {
@@ -98,4 +268,20 @@ class Workspace(val file: File, val extension: String = ".ks", val namespace: Li
             runningScripts.remove(context.id, context)
         }
     }
-}
\ No newline at end of file
+
+    private class Loaded(val hash: String, val script: Script)
+
+    @Inject
+    internal companion object {
+
+        /** 合并改动的等待时间（毫秒） */
+        const val DEBOUNCE = 200L
+
+        private val watching = ConcurrentHashMap.newKeySet<Workspace>()
+
+        @Awake(LifeCycle.DISABLE)
+        private fun unwatchAll() {
+            watching.toList().forEach { it.unwatch() }
+        }
+    }
+}
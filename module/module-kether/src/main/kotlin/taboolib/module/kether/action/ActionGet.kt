@@ -3,13 +3,33 @@ package taboolib.module.kether.action
 import taboolib.common.Inject
 import taboolib.library.kether.QuestAction
 import taboolib.library.kether.QuestContext
+import taboolib.library.kether.VarSlot
 import taboolib.module.kether.*
 import java.util.concurrent.CompletableFuture
 
-class ActionGet<T>(val key: String) : QuestAction<T>() {
+/**
+ * 读取变量
+ *
+ * @param key 变量名
+ * @param slot 解析时分配的槽位，根变量表通过下标读取，未绑定时按名称查找
+ */
+class ActionGet<T> @JvmOverloads constructor(val key: String, val slot: VarSlot = VarSlot.unbound(key)) : QuestAction<T>() {
 
     override fun process(frame: QuestContext.Frame): CompletableFuture<T> {
-        return CompletableFuture.completedFuture(frame.variables().get<T?>(key).orElse(null))
+        return CompletableFuture.completedFuture(call(frame))
+    }
+
+    override fun isSync(): Boolean {
+        return true
+    }
+
+    override fun isMainThread(): Boolean {
+        return false
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun call(frame: QuestContext.Frame): T {
+        return frame.variables().get<T?>(slot).orElse(null) as T
     }
 
     @Inject
@@ -29,7 +49,7 @@ class ActionGet<T>(val key: String) : QuestAction<T>() {
                 }
                 other {
                     val key = it.nextToken()
-                    actionNow { variables().get<Any>(key).orElse(null) }
+                    ActionGet<Any>(key, it.slot(key))
                 }
             }
         }
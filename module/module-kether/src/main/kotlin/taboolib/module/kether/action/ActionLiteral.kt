@@ -30,6 +30,19 @@ class ActionLiteral<T> : QuestAction<T> {
         return CompletableFuture.completedFuture(value as T)
     }
 
+    override fun isSync(): Boolean {
+        return true
+    }
+
+    override fun isMainThread(): Boolean {
+        return false
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun call(frame: QuestContext.Frame): T {
+        return value as T
+    }
+
     companion object {
 
         fun parser(): QuestActionParser {
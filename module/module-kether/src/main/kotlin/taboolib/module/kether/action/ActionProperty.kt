@@ -71,21 +71,31 @@ object ActionProperty {
     class Get(val instance: ParsedAction<*>, val key: String) : ScriptAction<Any?>() {
 
         override fun run(frame: ScriptFrame): CompletableFuture<Any?> {
-            return frame.newFrame(instance).run<Any>().thenApply {
-                if (it == null) {
-                    warning("Property object must be not null.")
-                    return@thenApply null
-                }
-                val propertyList = getScriptProperty(it)
-                for (property in propertyList) {
-                    val result = (property as ScriptProperty<Any>).read(it, key)
-                    if (result.isSuccessful) {
-                        return@thenApply result.value
-                    }
+            return frame.newFrame(instance).run<Any>().thenApply { read(it) }
+        }
+
+        override fun isSync(): Boolean {
+            return instance.isSync
+        }
+
+        override fun call(frame: ScriptFrame): Any? {
+            return read(instance.call(frame))
+        }
+
+        private fun read(obj: Any?): Any? {
+            if (obj == null) {
+                warning("Property object must be not null.")
+                return null
+            }
+            val propertyList = getScriptProperty(obj)
+            for (property in propertyList) {
+                val result = (property as ScriptProperty<Any>).read(obj, key)
+                if (result.isSuccessful) {
+                    return result.value
                 }
-                warning("${it.javaClass.simpleName}[$key] not supported yet.")
-                return@thenApply null
             }
+            warning("${obj.javaClass.simpleName}[$key] not supported yet.")
+            return null
         }
     }
 }
\ No newline at end of file
@@ -4,27 +4,54 @@ import taboolib.common.Inject
 import taboolib.library.kether.ParsedAction
 import taboolib.library.kether.QuestAction
 import taboolib.library.kether.QuestContext
+import taboolib.library.kether.VarSlot
 import taboolib.module.kether.*
 import java.util.concurrent.CompletableFuture
 
 class ActionSet {
 
-    class ForConstant(val key: String, val value: String?) : QuestAction<Void>() {
+    class ForConstant @JvmOverloads constructor(val key: String, val value: String?, val slot: VarSlot = VarSlot.unbound(key)) : QuestAction<Void>() {
 
         override fun process(frame: QuestContext.Frame): CompletableFuture<Void> {
             if (value == null || value == "null") {
-                frame.variables()[key] = null
+                frame.variables()[slot] = null
             } else {
-                frame.variables()[key] = value
+                frame.variables()[slot] = value
             }
             return CompletableFuture.completedFuture(null)
         }
+
+        override fun isSync(): Boolean {
+            return true
+        }
+
+        override fun isMainThread(): Boolean {
+            return false
+        }
+
+        override fun call(frame: QuestContext.Frame): Void? {
+            process(frame)
+            return null
+        }
     }
 
-    class ForAction(val key: String, val action: ParsedAction<*>) : QuestAction<Void>() {
+    class ForAction @JvmOverloads constructor(val key: String, val action: ParsedAction<*>, val slot: VarSlot = VarSlot.unbound(key)) : QuestAction<Void>() {
 
         override fun process(frame: QuestContext.Frame): CompletableFuture<Void> {
-            return frame.run(action).thenAccept { frame.variables().set(key, it) }.except()
+            return frame.run(action).thenAccept { frame.variables().set(slot, it) }.except()
+        }
+
+        override fun isSync(): Boolean {
+            return action.isSync
+        }
+
+        override fun isMainThread(): Boolean {
+            return false
+        }
+
+        override fun call(frame: QuestContext.Frame): Void? {
+            frame.variables().set(slot, action.call(frame))
+            return null
         }
     }
 
@@ -63,20 +90,20 @@ class ActionSet {
                     it.mark()
                     try {
                         it.expect("to")
-                        ForAction(token, it.nextParsedAction())
+                        ForAction(token, it.nextParsedAction(), it.slot(token))
                     } catch (ex: Exception) {
                         it.reset()
-                        ForConstant(token, it.nextToken())
+                        ForConstant(token, it.nextToken(), it.slot(token))
                     }
                 }
             } else {
                 it.mark()
                 try {
                     it.expect("to")
-                    ForAction(token, it.nextParsedAction())
+                    ForAction(token, it.nextParsedAction(), it.slot(token))
                 } catch (ex: Exception) {
                     it.reset()
-                    ForConstant(token, it.nextToken())
+                    ForConstant(token, it.nextToken(), it.slot(token))
                 }
             }
         }
@@ -15,13 +15,13 @@ internal object Actions {
     @KetherParser(["import"])
     fun actionImport() = scriptParser {
         it.getProperty<MutableList<String>>("namespace")!!.add(it.nextToken())
-        actionNow { null }
+        actionNow(sync = true) { null }
     }
 
     @KetherParser(["release"])
     fun actionRelease() = scriptParser {
         it.getProperty<MutableList<String>>("namespace")!!.remove(it.nextToken())
-        actionNow { null }
+        actionNow(sync = true) { null }
     }
 
     @KetherParser(["pause"])
@@ -35,17 +35,17 @@ internal object Actions {
     }
 
     @KetherParser(["log", "print", "info"])
-    fun actionInfo() = combinationParser {
+    fun actionInfo() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str -> now { info(str) } }
     }
 
     @KetherParser(["warn", "warning"])
-    fun actionWarning() = combinationParser {
+    fun actionWarning() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str -> now { warning(str) } }
     }
 
     @KetherParser(["error", "severe"])
-    fun actionSevere() = combinationParser {
+    fun actionSevere() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str -> now { severe(str) } }
     }
 
@@ -69,7 +69,7 @@ internal object Actions {
     @KetherParser(["async"])
     fun actionAsync() = scriptParser {
         val action = it.nextParsedAction() as ParsedAction<Any>
-        actionNow { QuestFuture(action, run(action)) }
+        actionNow("async") { QuestFuture(action, run(action)) }
     }
 
     @KetherParser(["call"])
@@ -87,20 +87,18 @@ internal object Actions {
     @KetherParser(["goto"])
     fun actionGoto() = scriptParser {
         val block = it.nextToken()
-        actionNow { setNext(context().quest.blocks[block] ?: error("block $block not found")) }
+        actionNow("goto") { setNext(context().quest.blocks[block] ?: error("block $block not found")) }
     }
 
     @KetherParser(["if"])
-    fun actionIf() = combinationParser {
+    fun actionIf() = combinationParser(sync = true) {
         it.group(bool(), command("then", then = action()), command("else", then = action()).option()).apply(it) { condition, t, f ->
-            future {
-                if (condition) run(t) else if (f != null) run(f) else CompletableFuture.completedFuture(null)
-            }
+            if (condition) execute(t) else execute(f)
         }
     }
 
     @KetherParser(["not"])
-    fun actionNot() = combinationParser {
+    fun actionNot() = combinationParser(sync = true) {
         it.group(bool()).apply(it) { b -> now { !b } }
     }
 
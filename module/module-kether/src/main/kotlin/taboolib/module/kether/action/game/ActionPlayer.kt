@@ -29,6 +29,15 @@ class ActionPlayer(val name: String, val operator: PlayerOperator, val method: P
         }
     }
 
+    /** 读取可同步执行，写入需要在主线程中完成 */
+    override fun isSync(): Boolean {
+        return value == null
+    }
+
+    override fun call(frame: ScriptFrame): Any? {
+        return operator.reader?.func?.invoke(frame.player()) ?: error("Player \"$name\" is not readable.")
+    }
+
     @Inject
     internal companion object {
 
@@ -15,61 +15,61 @@ import taboolib.module.kether.*
 internal object Actions {
 
     @KetherParser(["tell", "send", "message"])
-    fun actionTell() = combinationParser {
+    fun actionTell() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str ->
             now { script().sender?.sendMessage(str.replace("@sender", script().sender?.name.toString())) ?: error("No sender") }
         }
     }
 
     @KetherParser(["actionbar"])
-    fun actionActionBar() = combinationParser {
+    fun actionActionBar() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str ->
             now { player().sendActionBar(str.replace("@sender", script().sender?.name.toString())) }
         }
     }
 
     @KetherParser(["broadcast", "bc"])
-    fun actionBroadcast() = combinationParser {
+    fun actionBroadcast() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str ->
             now { onlinePlayers().forEach { p -> p.sendMessage(str.replace("@sender", script().sender?.name.toString())) } }
         }
     }
 
     @KetherParser(["color", "colored"])
-    fun actionColor() = combinationParser {
+    fun actionColor() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str -> now { str.colored() } }
     }
 
     @Suppress("SpellCheckingInspection")
     @KetherParser(["uncolor", "uncolored"])
-    fun actionUncolored() = combinationParser {
+    fun actionUncolored() = combinationParser(sync = true) {
         it.group(text()).apply(it) { str -> now { str.uncolored() } }
     }
 
     @KetherParser(["perm", "permission"])
-    fun actionPermission() = combinationParser {
+    fun actionPermission() = combinationParser(sync = true) {
         it.group(text()).apply(it) { perm -> now { player().hasPermission(perm) } }
     }
 
     @KetherParser(["players"])
     fun actionPlayers() = scriptParser {
-        actionNow { onlinePlayers().map { it.name } }
+        actionNow(sync = true) { onlinePlayers().map { it.name } }
     }
 
     @KetherParser(["sender"])
     fun actionSender() = scriptParser {
-        actionNow { if (script().sender.isConsole()) "console" else script().sender?.name.toString() }
+        actionNow(sync = true) { if (script().sender.isConsole()) "console" else script().sender?.name.toString() }
     }
 
     @KetherParser(["switch"])
-    fun actionSwitch() = combinationParser {
+    fun actionSwitch() = combinationParser(sync = true) {
         it.group(text()).apply(it) { to ->
             now { script().sender = if (to == "console" || to == "server") console() else getProxyPlayer(to) }
         }
     }
 
     @KetherParser(["title"])
-    fun actionTitle() = combinationParser {
+    fun actionTitle() = combinationParser(sync = true) {
         it.group(
             text(),
             command("subtitle", then = text()).option(),
@@ -81,7 +81,7 @@ internal object Actions {
     }
 
     @KetherParser(["subtitle"])
-    fun actionSubtitle() = combinationParser {
+    fun actionSubtitle() = combinationParser(sync = true) {
         it.group(
             text(),
             command("by", "with", then = int().and(int(), int())).option().defaultsTo(Triple(0, 20, 0))
@@ -92,7 +92,7 @@ internal object Actions {
     }
 
     @KetherParser(["loc", "location"])
-    fun actionLocation() = combinationParser {
+    fun actionLocation() = combinationParser(sync = true) {
         it.group(
             text(),
             double(),
@@ -105,7 +105,7 @@ internal object Actions {
     }
 
     @KetherParser(["sound"])
-    fun actionSound() = combinationParser {
+    fun actionSound() = combinationParser(sync = true) {
         it.group(
             text(),
             command("by", "with", then = float().and(float())).option().defaultsTo(0f to 0f)
@@ -122,7 +122,7 @@ internal object Actions {
     }
 
     @KetherParser(["stopsound"])
-    fun actionStopSound() = combinationParser {
+    fun actionStopSound() = combinationParser(sync = true) {
         it.group(
             text(),
         ).apply(it) { sound ->
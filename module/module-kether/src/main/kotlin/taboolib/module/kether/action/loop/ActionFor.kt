@@ -3,13 +3,21 @@ package taboolib.module.kether.action.loop
 import taboolib.common.Inject
 import taboolib.library.kether.ArgTypes
 import taboolib.library.kether.ParsedAction
+import taboolib.library.kether.VarSlot
 import taboolib.module.kether.*
 import java.util.concurrent.CompletableFuture
 
 /**
  * @author IzzelAliz
  */
-class ActionFor(val key: String, val values: ParsedAction<*>, val action: ParsedAction<*>) : ScriptAction<Void>() {
+class ActionFor @JvmOverloads constructor(
+    val key: String,
+    val values: ParsedAction<*>,
+    val action: ParsedAction<*>,
+    val keySlot: VarSlot = VarSlot.unbound(key),
+    val entryKeySlot: VarSlot = VarSlot.unbound("$key-key"),
+    val entryValueSlot: VarSlot = VarSlot.unbound("$key-value")
+) : ScriptAction<Void>() {
 
     override fun run(frame: ScriptFrame): CompletableFuture<Void> {
         val future = CompletableFuture<Void>()
@@ -18,17 +26,17 @@ class ActionFor(val key: String, val values: ParsedAction<*>, val action: Parsed
                 if (cur < i.size) {
                     val el = i[cur]
                     if (el is Map.Entry<*, *>) {
-                        frame.variables()["$key-key"] = el.key
-                        frame.variables()["$key-value"] = el.value
+                        frame.variables()[entryKeySlot] = el.key
+                        frame.variables()[entryValueSlot] = el.value
                     }
-                    frame.variables()[key] = el
+                    frame.variables()[keySlot] = el
                     frame.newFrame(action).run<Any>().thenApply {
                         if (frame.script().breakLoop) {
                             frame.script().breakLoop = false
                             frame.variables().also { v ->
-                                v.remove(key)
-                                v.remove("$key-key")
-                                v.remove("$key-value")
+                                v.remove(keySlot)
+                                v.remove(entryKeySlot)
+                                v.remove(entryValueSlot)
                             }
                             future.complete(null)
                         } else {
@@ -37,9 +45,9 @@ class ActionFor(val key: String, val values: ParsedAction<*>, val action: Parsed
                     }.except { future.complete(null) }
                 } else {
                     frame.variables().also { v ->
-                        v.remove(key)
-                        v.remove("$key-key")
-                        v.remove("$key-value")
+                        v.remove(keySlot)
+                        v.remove(entryKeySlot)
+                        v.remove(entryValueSlot)
                     }
                     future.complete(null)
                 }
@@ -63,13 +71,14 @@ class ActionFor(val key: String, val values: ParsedAction<*>, val action: Parsed
          */
         @KetherParser(["for"])
         fun parser() = scriptParser {
-            ActionFor(it.nextToken(), it.run {
+            val key = it.nextToken()
+            ActionFor(key, it.run {
                 expect("in")
                 next(ArgTypes.ACTION)
             }, it.run {
                 expect("then")
                 next(ArgTypes.ACTION)
-            })
+            }, it.slot(key), it.slot("$key-key"), it.slot("$key-value"))
         }
     }
 }
\ No newline at end of file
@@ -3,13 +3,21 @@ package taboolib.module.kether.action.loop
 import taboolib.common.Inject
 import taboolib.library.kether.ArgTypes
 import taboolib.library.kether.ParsedAction
+import taboolib.library.kether.VarSlot
 import taboolib.module.kether.*
 import java.util.concurrent.CompletableFuture
 
 /**
  * @author IzzelAliz
  */
-class ActionMap(val key: String, val values: ParsedAction<*>, val action: ParsedAction<*>) : ScriptAction<List<Any>>() {
+class ActionMap @JvmOverloads constructor(
+    val key: String,
+    val values: ParsedAction<*>,
+    val action: ParsedAction<*>,
+    val keySlot: VarSlot = VarSlot.unbound(key),
+    val entryKeySlot: VarSlot = VarSlot.unbound("$key-key"),
+    val entryValueSlot: VarSlot = VarSlot.unbound("$key-value")
+) : ScriptAction<List<Any>>() {
 
     override fun run(frame: ScriptFrame): CompletableFuture<List<Any>> {
         val future = CompletableFuture<List<Any>>()
@@ -19,10 +27,10 @@ class ActionMap(val key: String, val values: ParsedAction<*>, val action: Parsed
                 if (cur < i.size) {
                     val el = i[cur]
                     if (el is Map.Entry<*, *>) {
-                        frame.variables()["$key-key"] = el.key
-                        frame.variables()["$key-value"] = el.value
+                        frame.variables()[entryKeySlot] = el.key
+                        frame.variables()[entryValueSlot] = el.value
                     }
-                    frame.variables()[key] = el
+                    frame.variables()[keySlot] = el
                     frame.newFrame(action).run<Any>().thenApply { map ->
                         if (map != null) {
                             result += map
@@ -30,9 +38,9 @@ class ActionMap(val key: String, val values: ParsedAction<*>, val action: Parsed
                         if (frame.script().breakLoop) {
                             frame.script().breakLoop = false
                             frame.variables().also { v ->
-                                v.remove(key)
-                                v.remove("$key-key")
-                                v.remove("$key-value")
+                                v.remove(keySlot)
+                                v.remove(entryKeySlot)
+                                v.remove(entryValueSlot)
                             }
                             future.complete(result)
                         } else {
@@ -41,9 +49,9 @@ class ActionMap(val key: String, val values: ParsedAction<*>, val action: Parsed
                     }.except { future.complete(result) }
                 } else {
                     frame.variables().also { v ->
-                        v.remove(key)
-                        v.remove("$key-key")
-                        v.remove("$key-value")
+                        v.remove(keySlot)
+                        v.remove(entryKeySlot)
+                        v.remove(entryValueSlot)
                     }
                     future.complete(result)
                 }
@@ -63,13 +71,14 @@ class ActionMap(val key: String, val values: ParsedAction<*>, val action: Parsed
 
         @KetherParser(["map"])
         fun parser() = scriptParser {
-            ActionMap(it.nextToken(), it.run {
+            val key = it.nextToken()
+            ActionMap(key, it.run {
                 expect("in")
                 next(ArgTypes.ACTION)
             }, it.run {
                 expect("with")
                 next(ArgTypes.ACTION)
-            })
+            }, it.slot(key), it.slot("$key-key"), it.slot("$key-value"))
         }
     }
 }
\ No newline at end of file
@@ -11,7 +11,7 @@ internal object Actions {
 
     @KetherParser(["break"])
     fun actionBreak() = scriptParser {
-        actionNow {
+        actionNow(sync = true) {
             script().breakLoop = true
             null
         }
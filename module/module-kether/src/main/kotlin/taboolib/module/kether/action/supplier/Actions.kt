@@ -12,17 +12,17 @@ internal object Actions {
 
     @KetherParser(["null"])
     fun parser1() = scriptParser {
-        actionNow { null }
+        actionNow(sync = true) { null }
     }
 
     @KetherParser(["pass"])
     fun parser2() = scriptParser {
-        actionNow { "" }
+        actionNow(sync = true) { "" }
     }
 
     @KetherParser(["vars", "variables"])
     fun parser3() = scriptParser {
-        actionNow { deepVars().keys.toList() }
+        actionNow(sync = true) { deepVars().keys.toList() }
     }
 
     @KetherProperty(bind = String::class)
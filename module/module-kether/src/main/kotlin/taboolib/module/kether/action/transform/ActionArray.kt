@@ -34,7 +34,7 @@ internal object ActionArray {
      * 转换为可变列表
      */
     @KetherParser(["mutable"])
-    fun actionMutable() = combinationParser {
+    fun actionMutable() = combinationParser(sync = true) {
         it.group(anyAsList()).apply(it) { array -> now { array.toMutableList() } }
     }
 
@@ -42,7 +42,7 @@ internal object ActionArray {
      * 打乱列表
      */
     @KetherParser(["shuffle"])
-    fun actionShuffle() = combinationParser {
+    fun actionShuffle() = combinationParser(sync = true) {
         it.group(anyAsList()).apply(it) { array -> now { array.shuffled().toMutableList() } }
     }
 
@@ -50,7 +50,7 @@ internal object ActionArray {
      * 反转列表
      */
     @KetherParser(["reverse"])
-    fun actionReverse() = combinationParser {
+    fun actionReverse() = combinationParser(sync = true) {
         it.group(anyAsList()).apply(it) { array -> now { array.reversed().toMutableList() } }
     }
 
@@ -58,7 +58,7 @@ internal object ActionArray {
      * 构建列表
      */
     @KetherParser(["array", "arr"])
-    fun actionArray() = combinationParser {
+    fun actionArray() = combinationParser(sync = true) {
         it.group(originList()).apply(it) { array -> now { array } }
     }
 
@@ -67,7 +67,7 @@ internal object ActionArray {
      * arr-get 1 in &array
      */
     @KetherParser(["arr-get", "element", "elem"])
-    fun actionArrayGet() = combinationParser {
+    fun actionArrayGet() = combinationParser(sync = true) {
         it.group(int(), command("in", "of", then = anyAsList())).apply(it) { el, array -> now { array.getOrNull(el) } }
     }
 
@@ -76,7 +76,7 @@ internal object ActionArray {
      * arr-add test to &array
      */
     @KetherParser(["arr-add"])
-    fun actionArrayAdd() = combinationParser {
+    fun actionArrayAdd() = combinationParser(sync = true) {
         it.group(any(), command("to", then = anyAsList())).apply(it) { el, array -> now { array.add(el) } }
     }
 
@@ -85,7 +85,7 @@ internal object ActionArray {
      * arr-add test to &array
      */
     @KetherParser(["arr-add-first", "arr-push"])
-    fun actionArrayAddFirst() = combinationParser {
+    fun actionArrayAddFirst() = combinationParser(sync = true) {
         it.group(any(), command("to", then = anyAsList())).apply(it) { el, array -> now { array.add(0, el) } }
     }
 
@@ -94,7 +94,7 @@ internal object ActionArray {
      * arr-remove test in &array
      */
     @KetherParser(["arr-remove"])
-    fun actionArrayRemove() = combinationParser {
+    fun actionArrayRemove() = combinationParser(sync = true) {
         it.group(any(), command("in", then = anyAsList())).apply(it) { el, array -> now { array.remove(el) } }
     }
 
@@ -103,7 +103,7 @@ internal object ActionArray {
      * arr-remove-at 1 in &array
      */
     @KetherParser(["arr-remove-at"])
-    fun actionArrayRemoveAt() = combinationParser {
+    fun actionArrayRemoveAt() = combinationParser(sync = true) {
         it.group(int(), command("in", then = anyAsList())).apply(it) { el, array -> now { array.removeAt(el) } }
     }
 
@@ -112,7 +112,7 @@ internal object ActionArray {
      * arr-remove-first &array
      */
     @KetherParser(["arr-remove-first", "arr-take"])
-    fun actionArrayRemoveFirst() = combinationParser {
+    fun actionArrayRemoveFirst() = combinationParser(sync = true) {
         it.group(anyAsList()).apply(it) { array -> now { array.removeFirstOrNull() } }
     }
 
@@ -121,7 +121,7 @@ internal object ActionArray {
      * arr-remove-last &array
      */
     @KetherParser(["arr-remove-last", "arr-drop"])
-    fun actionArrayRemoveLast() = combinationParser {
+    fun actionArrayRemoveLast() = combinationParser(sync = true) {
         it.group(anyAsList()).apply(it) { array -> now { array.removeLastOrNull() } }
     }
 
@@ -130,7 +130,7 @@ internal object ActionArray {
      * arr-find test in &array
      */
     @KetherParser(["arr-find"])
-    fun actionArrayFind() = combinationParser {
+    fun actionArrayFind() = combinationParser(sync = true) {
         it.group(any(), command("in", "of", then = anyAsList())).apply(it) { el, array -> now { array.indexOf(el) } }
     }
 }
\ No newline at end of file
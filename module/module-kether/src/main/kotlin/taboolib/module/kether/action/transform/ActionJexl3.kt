@@ -1,13 +1,16 @@
 package taboolib.module.kether.action.transform
 
 import org.apache.commons.jexl3.JexlBuilder
+import org.apache.commons.jexl3.JexlContext
 import org.apache.commons.jexl3.JexlEngine
-import org.apache.commons.jexl3.MapContext
+import org.apache.commons.jexl3.JexlExpression
+import org.apache.commons.jexl3.JexlScript
 import taboolib.common.Inject
 import taboolib.common.platform.function.console
 import taboolib.common.util.unsafeLazy
 import taboolib.library.kether.QuestContext.Frame
 import taboolib.module.kether.*
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * TabooLib
@@ -19,9 +22,18 @@ import taboolib.module.kether.*
 @Inject
 internal object ActionJexl3 {
 
-    val jexl: JexlEngine by unsafeLazy { JexlBuilder().create() }
+    /** JexlEngine 内部的语法树缓存大小，需要在首次使用前设置 */
+    var engineCacheSize = 512
+
+    val jexl: JexlEngine by unsafeLazy { JexlBuilder().cache(engineCacheSize).create() }
     var autoContext = true
 
+    /** calc dynamic 编译结果缓存 */
+    val expressionCache = CompiledCache<JexlExpression>(256)
+
+    /** invoke dynamic 编译结果缓存 */
+    val scriptCache = CompiledCache<JexlScript>(256)
+
     /**
      * calc dynamic ""
      * calc ""
@@ -32,11 +44,11 @@ internal object ActionJexl3 {
         try {
             it.expects("dynamic")
             val expression = it.nextParsedAction()
-            actionTake { run(expression).str { exp -> jexl.createExpression(exp).evaluate(createMapContext()) } }
+            actionTake { run(expression).str { exp -> expressionCache.get(exp) { s -> jexl.createExpression(s) }.evaluate(createContext()) } }
         } catch (ex: Throwable) {
             it.reset()
             val expression = jexl.createExpression(it.nextToken())
-            actionNow { expression.evaluate(createMapContext()) }
+            actionNow(sync = true) { expression.evaluate(createContext()) }
         }
     }
 
@@ -50,21 +62,126 @@ internal object ActionJexl3 {
         try {
             it.expects("dynamic")
             val script = it.nextParsedAction()
-            actionTake { run(script).str { exp -> jexl.createScript(exp).execute(createMapContext()) } }
+            actionTake { run(script).str { exp -> scriptCache.get(exp) { s -> jexl.createScript(s) }.execute(createContext()) } }
         } catch (ex: Throwable) {
             it.reset()
             val script = jexl.createScript(it.nextToken())
-            actionNow { script.execute(createMapContext()) }
+            actionNow(sync = true) { script.execute(createContext()) }
         }
     }
 
-    fun Frame.createMapContext(): MapContext {
-        val context = MapContext(deepVars())
-        if (autoContext) {
-            context.set("script", script())
-            context.set("sender", script().sender)
-            context.set("console", console())
+    /** 创建按需读取 Frame 变量的上下文 */
+    fun Frame.createContext(): JexlContext {
+        return FrameContext(this, autoContext)
+    }
+
+    /**
+     * 读取 Frame 变量的 JexlContext
+     *
+     * 与复制 [deepVars] 的 MapContext 行为相同（变量的优先级与 [deepVars] 一致，读取的是变量表中的原始值），
+     * auto context 变量（script、sender、console）优先于 Frame 变量，脚本中的赋值只写入当前上下文，不会修改 Frame 变量。
+     * 区别在于每次读取只查找该变量所在的 Frame，不会复制所有 Frame 的变量。
+     */
+    class FrameContext(val frame: Frame, val autoContext: Boolean) : JexlContext {
+
+        private var local: HashMap<String, Any?>? = null
+
+        override fun get(name: String): Any? {
+            val local = local
+            if (local != null && local.containsKey(name)) {
+                return local[name]
+            }
+            if (autoContext) {
+                when (name) {
+                    "script" -> return frame.script()
+                    "sender" -> return frame.script().sender
+                    "console" -> return console()
+                }
+            }
+            return frameOf(name)?.variables()?.getLocal(name)
+        }
+
+        override fun set(name: String, value: Any?) {
+            (local ?: HashMap<String, Any?>().also { local = it })[name] = value
+        }
+
+        override fun has(name: String): Boolean {
+            if (local?.containsKey(name) == true) {
+                return true
+            }
+            if (autoContext && (name == "script" || name == "sender" || name == "console")) {
+                return true
+            }
+            return frameOf(name) != null
+        }
+
+        /**
+         * 查找变量所在的 Frame，与 [deepVars] 的优先级相同：
+         * 当前 Frame 优先，其次是最远的（最接近根节点的）父 Frame
+         */
+        private fun frameOf(name: String): Frame? {
+            if (frame.variables().containsLocal(name)) {
+                return frame
+            }
+            var found: Frame? = null
+            var parent = frame.parent()
+            while (parent.isPresent) {
+                val current = parent.get()
+                if (current.variables().containsLocal(name)) {
+                    found = current
+                }
+                parent = current.parent()
+            }
+            return found
+        }
+    }
+
+    /**
+     * 编译结果缓存
+     *
+     * 按最近最少使用（LRU）的顺序淘汰，数量不超过 [maximumSize]。
+     */
+    class CompiledCache<T : Any>(val maximumSize: Int) {
+
+        private val map = object : LinkedHashMap<String, T>(16, 0.75f, true) {
+
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, T>): Boolean {
+                if (size > maximumSize) {
+                    evictions.incrementAndGet()
+                    return true
+                }
+                return false
+            }
+        }
+
+        private val hits = AtomicLong()
+        private val misses = AtomicLong()
+        private val evictions = AtomicLong()
+
+        /** 获取编译结果，不存在时通过 compiler 编译 */
+        fun get(source: String, compiler: (String) -> T): T {
+            synchronized(map) {
+                val compiled = map[source]
+                if (compiled != null) {
+                    hits.incrementAndGet()
+                    return compiled
+                }
+            }
+            misses.incrementAndGet()
+            // 在锁外编译
+            val compiled = compiler(source)
+            synchronized(map) { map[source] = compiled }
+            return compiled
+        }
+
+        /** 移除所有缓存 */
+        fun invalidateAll() {
+            synchronized(map) { map.clear() }
+        }
+
+        override fun toString(): String {
+            val size = synchronized(map) { map.size }
+            return "size=$size, hits=${hits.get()}, misses=${misses.get()}, evictions=${evictions.get()}"
         }
-        return context
     }
-}
\ No newline at end of file
+}
@@ -17,7 +17,7 @@ import java.util.regex.Pattern
 internal object ActionMatcher {
 
     @KetherParser(["match"])
-    fun actionMatch() = combinationParser {
+    fun actionMatch() = combinationParser(sync = true) {
         it.group(text(), command("by", "with", "using", then = text())).apply(it) { text, pattern ->
             now { Pattern.compile(pattern, Pattern.CASE_INSENSITIVE).matcher(text).also { m -> m.find() } }
         }
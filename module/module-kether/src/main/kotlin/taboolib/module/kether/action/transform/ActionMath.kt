@@ -87,6 +87,10 @@ class ActionMath(val type: Type, val array: List<ParsedAction<*>>) : ScriptActio
         return future
     }
 
+    override fun isMainThread(): Boolean {
+        return false
+    }
+
     @Inject
     internal companion object {
 
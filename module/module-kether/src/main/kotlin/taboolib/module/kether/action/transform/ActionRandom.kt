@@ -43,6 +43,10 @@ internal class ActionRandom(val from: ParsedAction<*>, val to: ParsedAction<*>,
         return future
     }
 
+    override fun isMainThread(): Boolean {
+        return false
+    }
+
     fun random(future: CompletableFuture<Any?>, i: List<Any>) {
         future.complete(if (i.isEmpty()) null else i[Random.nextInt(i.size)])
     }
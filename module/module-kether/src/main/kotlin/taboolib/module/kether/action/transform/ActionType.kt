@@ -19,6 +19,10 @@ class ActionType {
             return CompletableFuture.completedFuture(any.inferType())
         }
 
+        override fun isMainThread(): Boolean {
+            return false
+        }
+
         override fun toString(): String {
             return "ActionType(any=$any)"
         }
@@ -30,6 +34,10 @@ class ActionType {
             return frame.newFrame(action).run<Any>().thenApply { to.transfer(it) }
         }
 
+        override fun isMainThread(): Boolean {
+            return false
+        }
+
         override fun toString(): String {
             return "ActionTypeTo(action=$action, to=$to)"
         }
@@ -14,7 +14,7 @@ internal object Actions {
      * 格式化数字
      */
     @KetherParser(["scale", "scaled"])
-    fun actionScale() = combinationParser {
+    fun actionScale() = combinationParser(sync = true) {
         it.group(double()).apply(it) { d -> now { Coerce.format(d) }}
     }
 
@@ -22,7 +22,7 @@ internal object Actions {
      * 取整
      */
     @KetherParser(["round"])
-    fun actionRound() = combinationParser {
+    fun actionRound() = combinationParser(sync = true) {
         it.group(double()).apply(it) { d -> now { d.roundToInt() }}
     }
 
@@ -30,7 +30,7 @@ internal object Actions {
      * 拆分字符串
      */
     @KetherParser(["split"])
-    fun actionSplit() = combinationParser {
+    fun actionSplit() = combinationParser(sync = true) {
         it.group(text(), command("by", "with", then = text()).option()).apply(it) { t, s ->
             now { if (s != null) t.split(s.toRegex()) else t.toCharArray().map { c -> c.toString() }.toMutableList() }
         }
@@ -40,7 +40,7 @@ internal object Actions {
      * 格式化时间
      */
     @KetherParser(["format"])
-    fun actionFormat() = combinationParser {
+    fun actionFormat() = combinationParser(sync = true) {
         it.group(long(), command("by", "with", then = text()).option()).apply(it) { t, s ->
             now { DateFormatUtils.format(t, s ?: "yyyy/MM/dd HH:mm") }
         }
@@ -50,7 +50,7 @@ internal object Actions {
      * 将字符串转换为打字机效果
      */
     @KetherParser(["printed"])
-    fun actionPrinted() = combinationParser {
+    fun actionPrinted() = combinationParser(sync = true) {
         it.group(text(), command("by", "with", then = text()).option()).apply(it) { t, s ->
             now { t.printed(s ?: "_").toMutableList() }
         }
@@ -60,7 +60,7 @@ internal object Actions {
      * 比较
      */
     @KetherParser(["check"])
-    fun actionCheck() = combinationParser {
+    fun actionCheck() = combinationParser(sync = true) {
         it.group(any(), symbol(), any()).apply(it) { l, s, r ->
             val ct = CheckType.fromString(s)
             now { ct.check(l, r) }
@@ -71,7 +71,7 @@ internal object Actions {
      * 内联函数
      */
     @KetherParser(["inline", "function"])
-    fun actionFunction() = combinationParser {
+    fun actionFunction() = combinationParser(sync = true) {
         it.group(text()).apply(it) { f ->
             now { runKether(f) { KetherFunction.parse(f, sender = script().sender, vars = KetherShell.VariableMap(deepVars())) } }
         }
@@ -81,15 +81,9 @@ internal object Actions {
      * 可能为空的值
      */
     @KetherParser(["optional"])
-    fun actionOptional() = combinationParser {
+    fun actionOptional() = combinationParser(sync = true) {
         it.group(any(), command("else", then = action()).option()).apply(it) { t, e ->
-            future {
-                when {
-                    t != null -> completedFuture(t)
-                    e != null -> run(e)
-                    else -> completedFuture(null)
-                }
-            }
+            if (t != null) now<Any?> { t } else execute(e)
         }
     }
 
@@ -97,7 +91,7 @@ internal object Actions {
      * 取一个范围内的数字
      */
     @KetherParser(["range"])
-    fun actionRange() = combinationParser {
+    fun actionRange() = combinationParser(sync = true) {
         it.group(
             double(),
             command("to", then = double()),
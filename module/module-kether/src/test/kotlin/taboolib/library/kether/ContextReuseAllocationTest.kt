@@ -0,0 +1,50 @@
+package taboolib.library.kether
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Test
+import java.lang.management.ManagementFactory
+
+/**
+ * 测量每次执行分配的内存：每次创建新的上下文，与重置并复用同一个上下文（ScriptContextPool 的做法）
+ */
+class ContextReuseAllocationTest {
+
+    private val threadBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+
+    private val iterations = 100_000
+
+    private fun allocatedBytes(): Long {
+        return threadBean!!.getThreadAllocatedBytes(Thread.currentThread().id)
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        // 预热
+        repeat(iterations) { block() }
+        val start = allocatedBytes()
+        repeat(iterations) { block() }
+        return (allocatedBytes() - start) / iterations
+    }
+
+    @Test
+    fun reuseAllocatesLessThanCreate() {
+        assumeTrue(threadBean != null && threadBean.isThreadAllocatedMemorySupported)
+        threadBean!!.isThreadAllocatedMemoryEnabled = true
+        val slots = VarSlots()
+        slots.of("damage")
+        val quest = testQuest(syncAction(1), syncAction(2), slots = slots)
+        val fresh = measure {
+            val context = TestContext(quest)
+            context.rootFrame().variables()["damage"] = 1
+            assertEquals(2, context.runActions().join())
+        }
+        val reused = TestContext(quest)
+        val pooled = measure {
+            reused.rootFrame().variables()["damage"] = 1
+            assertEquals(2, reused.runActions().join())
+            reused.reset()
+        }
+        println("Allocated bytes per evaluation: create = $fresh, reuse = $pooled")
+        assertTrue(pooled < fresh, "reuse = $pooled, create = $fresh")
+    }
+}
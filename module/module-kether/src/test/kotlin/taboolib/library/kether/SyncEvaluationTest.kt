@@ -0,0 +1,69 @@
+package taboolib.library.kether
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CompletableFuture
+
+class SyncEvaluationTest {
+
+    @Test
+    fun syncQuestCompletesImmediately() {
+        var calls = 0
+        val quest = testQuest(syncAction(1) { calls++ }, syncAction(2) { calls++ })
+        assertTrue(quest.isSync)
+        val future = TestContext(quest).runActions()
+        assertTrue(future.isDone)
+        assertEquals(2, future.join())
+        // 同步模式下通过 call 执行
+        assertEquals(2, calls)
+    }
+
+    @Test
+    fun asyncActionSuspendsQuest() {
+        val pending = CompletableFuture<Any?>()
+        val quest = testQuest(syncAction(1), asyncAction(pending))
+        assertFalse(quest.isSync)
+        val future = TestContext(quest).runActions()
+        assertFalse(future.isDone)
+        pending.complete(3)
+        assertEquals(3, future.join())
+    }
+
+    @Test
+    fun syncAndAsyncModeAgree() {
+        val quest = testQuest(syncAction(1), syncAction("a"), syncAction(null), syncAction(listOf(1, 2)))
+        val sync = TestContext(quest).runActions().join()
+        val async = TestContext(quest).also { it.isAllowSync = false }.runActions().join()
+        assertEquals(async, sync)
+    }
+
+    @Test
+    fun combinationParserIsSyncOnlyWhenOptedIn() {
+        val fa = Parser.point(Parser.Action.sync<Any?> { 1 })
+        assertFalse(Parser.build(fa).resolve<Any?>(emptyReader()).isSync)
+        assertTrue(Parser.build(fa, true).resolve<Any?>(emptyReader()).isSync)
+    }
+
+    @Test
+    fun combinationParserReturningFutureStaysAsync() {
+        val pending = CompletableFuture<Any?>()
+        // 参数可同步执行，但返回的动作是异步的（如 future {}）
+        val fa = Parser.point(Parser.Action<Any?> { pending })
+        val action = Parser.build(fa).resolve<Any?>(emptyReader())
+        assertFalse(action.isSync)
+        val quest = testQuest(syncAction(1), action)
+        assertFalse(quest.isSync)
+        val future = TestContext(quest).runActions()
+        assertFalse(future.isDone)
+        pending.complete("done")
+        assertEquals("done", future.join())
+    }
+
+    @Test
+    fun optedInParserFallsBackForCompletedAsyncResult() {
+        val fa = Parser.point(Parser.Action<Any?> { CompletableFuture.completedFuture("done") })
+        val action = Parser.build(fa, true).resolve<Any?>(emptyReader())
+        assertTrue(action.isSync)
+        assertEquals("done", TestContext(testQuest(action)).runActions().join())
+    }
+}
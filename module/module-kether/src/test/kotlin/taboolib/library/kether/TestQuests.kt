@@ -0,0 +1,66 @@
+package taboolib.library.kether
+
+import java.lang.reflect.Proxy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+
+/**
+ * 不依赖 ScriptService 的脚本上下文，动作在当前线程中执行
+ */
+class TestContext(quest: Quest) : AbstractQuestContext<TestContext>(null, quest, null) {
+
+    override fun createExecutor(): Executor {
+        return Executor { it.run() }
+    }
+}
+
+/**
+ * 创建只有主代码块的脚本
+ */
+fun testQuest(vararg actions: QuestAction<*>, slots: VarSlots? = null): SimpleQuest {
+    @Suppress("UNCHECKED_CAST")
+    val block = SimpleQuest.SimpleBlock(QuestContext.BASE_BLOCK, actions.map { ParsedAction(it as QuestAction<Any?>) })
+    return SimpleQuest(CharArray(0), mapOf<String, Quest.Block>(QuestContext.BASE_BLOCK to block), "test", slots)
+}
+
+/**
+ * 可同步执行的动作
+ */
+fun syncAction(value: Any?, onCall: () -> Unit = {}): QuestAction<Any?> {
+    return object : QuestAction<Any?>() {
+
+        override fun process(frame: QuestContext.Frame): CompletableFuture<Any?> {
+            return CompletableFuture.completedFuture(value)
+        }
+
+        override fun isSync(): Boolean {
+            return true
+        }
+
+        override fun call(frame: QuestContext.Frame): Any? {
+            onCall()
+            return value
+        }
+    }
+}
+
+/**
+ * 返回指定 CompletableFuture 的异步动作
+ */
+fun asyncAction(future: CompletableFuture<Any?>): QuestAction<Any?> {
+    return object : QuestAction<Any?>() {
+
+        override fun process(frame: QuestContext.Frame): CompletableFuture<Any?> {
+            return future
+        }
+    }
+}
+
+/**
+ * 不读取任何内容的 QuestReader，用于解析不需要读取参数的 [Parser]
+ */
+fun emptyReader(): QuestReader {
+    return Proxy.newProxyInstance(QuestReader::class.java.classLoader, arrayOf(QuestReader::class.java)) { _, method, _ ->
+        throw UnsupportedOperationException(method.name)
+    } as QuestReader
+}
@@ -0,0 +1,111 @@
+package taboolib.library.kether
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import taboolib.library.kether.AbstractQuestContext.SimpleVarTable
+import taboolib.library.kether.AbstractQuestContext.SlotVarTable
+import java.util.*
+
+class VarTableParityTest {
+
+    private val names = listOf("a", "b", "dynamic", "~local", VarSlots.SENDER.name, "missing")
+
+    private fun createTables(): Triple<SimpleVarTable, SlotVarTable, VarSlots> {
+        val slots = VarSlots()
+        slots.of("a")
+        slots.of("b")
+        slots.of("~local")
+        return Triple(SimpleVarTable(null), SlotVarTable(null, slots), slots)
+    }
+
+    private fun assertParity(simple: QuestContext.VarTable, slot: QuestContext.VarTable) {
+        names.forEach { name ->
+            assertEquals(simple.get<Any?>(name), slot.get<Any?>(name), "get($name)")
+            assertEquals(simple.containsLocal(name), slot.containsLocal(name), "containsLocal($name)")
+            assertEquals(simple.getLocal(name), slot.getLocal(name), "getLocal($name)")
+        }
+        assertEquals(simple.keys().toSet(), slot.keys().toSet())
+        assertEquals(simple.toMap(), slot.toMap())
+    }
+
+    @Test
+    fun setAndGet() {
+        val (simple, slot) = createTables()
+        assertParity(simple, slot)
+        listOf(simple, slot).forEach {
+            it["a"] = 1
+            it["dynamic"] = "x"
+            it["~local"] = listOf(1, 2)
+        }
+        assertParity(simple, slot)
+    }
+
+    @Test
+    fun nullValues() {
+        val (simple, slot) = createTables()
+        listOf(simple, slot).forEach {
+            it["a"] = null
+            it["dynamic"] = null
+        }
+        // 值为 null 的变量仍然存在
+        assertTrue(slot.containsLocal("a"))
+        assertParity(simple, slot)
+    }
+
+    @Test
+    fun slotAccess() {
+        val (simple, slot, slots) = createTables()
+        listOf(simple, slot).forEach {
+            it[slots.of("b")] = 2
+            it[VarSlots.SENDER] = "sender"
+            it[VarSlots.BREAK_LOOP] = true
+        }
+        assertParity(simple, slot)
+        assertEquals(Optional.of(2), slot.get<Int>(slots.of("b")))
+        assertEquals(Optional.of(true), slot.get<Boolean>(VarSlots.BREAK_LOOP))
+        assertEquals(simple.get<Boolean>(VarSlots.BREAK_LOOP), slot.get<Boolean>(VarSlots.BREAK_LOOP))
+    }
+
+    @Test
+    fun removeAndClear() {
+        val (simple, slot, slots) = createTables()
+        listOf(simple, slot).forEach {
+            it["a"] = 1
+            it["b"] = 2
+            it["dynamic"] = 3
+            it.remove("a")
+            it.remove(slots.of("b"))
+            it.remove("dynamic")
+        }
+        assertParity(simple, slot)
+        listOf(simple, slot).forEach {
+            it["a"] = 1
+            it["dynamic"] = 3
+            it.clear()
+        }
+        assertParity(simple, slot)
+    }
+
+    @Test
+    fun childFramesReadRootVariables() {
+        val slots = VarSlots()
+        slots.of("a")
+        val withSlots = TestContext(testQuest(syncAction(null), slots = slots))
+        val withoutSlots = TestContext(testQuest(syncAction(null)))
+        assertTrue(withSlots.rootFrame().variables() is SlotVarTable)
+        assertTrue(withoutSlots.rootFrame().variables() is SimpleVarTable)
+        listOf(withSlots, withoutSlots).forEach {
+            it.rootFrame().variables()["a"] = 1
+            it.rootFrame().variables()["dynamic"] = 2
+        }
+        val childA = withSlots.rootFrame().newFrame("child")
+        val childB = withoutSlots.rootFrame().newFrame("child")
+        // 子 Frame 的写入回到根 Frame
+        childA.variables()["a"] = 3
+        childB.variables()["a"] = 3
+        names.forEach { name ->
+            assertEquals(childB.variables().get<Any?>(name), childA.variables().get<Any?>(name), "get($name)")
+        }
+        assertParity(withoutSlots.rootFrame().variables(), withSlots.rootFrame().variables())
+    }
+}
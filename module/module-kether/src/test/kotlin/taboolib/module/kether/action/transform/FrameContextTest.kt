@@ -0,0 +1,72 @@
+package taboolib.module.kether.action.transform
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import taboolib.library.kether.QuestContext.Frame
+import taboolib.library.kether.TestContext
+import taboolib.library.kether.VarSlots
+import taboolib.library.kether.syncAction
+import taboolib.library.kether.testQuest
+import taboolib.module.kether.deepVars
+
+class FrameContextTest {
+
+    private val names = listOf("a", "~x", "~y", "~z", "~n", "missing")
+
+    private fun assertSameAsDeepVars(frame: Frame) {
+        val context = ActionJexl3.FrameContext(frame, false)
+        val vars = frame.deepVars()
+        names.forEach { name ->
+            assertEquals(vars[name], context.get(name), "get($name)")
+            assertEquals(vars.containsKey(name), context.has(name), "has($name)")
+        }
+    }
+
+    private fun frames(slots: VarSlots?): Triple<Frame, Frame, Frame> {
+        val root = TestContext(testQuest(syncAction(null), slots = slots)).rootFrame()
+        val child = root.newFrame("child")
+        val grandchild = child.newFrame("grandchild")
+        // 以 ~ 开头的变量写入当前 Frame，其他变量写入根 Frame
+        root.variables()["a"] = 1
+        root.variables()["~x"] = "root"
+        child.variables()["~x"] = "child"
+        child.variables()["~y"] = "child"
+        grandchild.variables()["~z"] = "grandchild"
+        grandchild.variables()["~n"] = null
+        return Triple(root, child, grandchild)
+    }
+
+    @Test
+    fun precedenceMatchesDeepVars() {
+        val (root, child, grandchild) = frames(null)
+        assertSameAsDeepVars(root)
+        assertSameAsDeepVars(child)
+        assertSameAsDeepVars(grandchild)
+        // 当前 Frame 之外，最远的 Frame 优先
+        assertEquals("root", ActionJexl3.FrameContext(grandchild, false).get("~x"))
+        assertEquals("child", ActionJexl3.FrameContext(child, false).get("~x"))
+    }
+
+    @Test
+    fun precedenceMatchesDeepVarsWithSlots() {
+        val slots = VarSlots()
+        slots.of("a")
+        slots.of("~x")
+        val (root, child, grandchild) = frames(slots)
+        assertSameAsDeepVars(root)
+        assertSameAsDeepVars(child)
+        assertSameAsDeepVars(grandchild)
+    }
+
+    @Test
+    fun assignmentsStayInContext() {
+        val (root, _, grandchild) = frames(null)
+        val context = ActionJexl3.FrameContext(grandchild, false)
+        context.set("a", 2)
+        context.set("local", 3)
+        assertEquals(2, context.get("a"))
+        assertTrue(context.has("local"))
+        assertEquals(1, root.variables().get<Any?>("a").orElse(null))
+        assertFalse(grandchild.deepVars().containsKey("local"))
+    }
+}
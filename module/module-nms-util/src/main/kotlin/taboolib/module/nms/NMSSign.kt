@@ -116,6 +116,10 @@ private object NMSSignListener {
     /** 用户输入 */
     val callback = ConcurrentHashMap<String, (Array<String>) -> Unit>()
 
+    init {
+        PacketFilter.require("PacketPlayInUpdateSign")
+    }
+
     @SubscribeEvent
     fun onQuit(e: PlayerQuitEvent) {
         callback.remove(e.player.name)
@@ -20,4 +20,15 @@ dependencies {
     compileOnly("org.ow2.asm:asm:9.6")
     compileOnly("org.ow2.asm:asm-util:9.6")
     compileOnly("org.ow2.asm:asm-commons:9.6")
-}
\ No newline at end of file
+    // 测试
+    testImplementation(kotlin("stdlib"))
+    testImplementation(project(":common"))
+    testImplementation(project(":common-util"))
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.1")
+}
+
+tasks {
+    test {
+        useJUnitPlatform()
+    }
+}
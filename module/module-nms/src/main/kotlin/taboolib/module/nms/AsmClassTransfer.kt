@@ -4,23 +4,100 @@ import org.objectweb.asm.ClassReader
 import org.objectweb.asm.ClassVisitor
 import org.objectweb.asm.ClassWriter
 import org.objectweb.asm.commons.ClassRemapper
+import taboolib.common.PrimitiveLoader
+import taboolib.common.util.unsafeLazy
+import java.io.File
+import java.math.BigInteger
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.stream.Collectors
 
 /**
  * TabooLib
  * taboolib.module.nms.ClassTransfer
  *
+ * 转换后的字节码缓存在 cache/taboolib/<项目>/remap 目录下，
+ * 以源字节码、服务端版本与映射文件签名作为键，因此相同环境下再次启动时无需重新转换（也无需加载映射文件）。
+ *
  * @author sky
  * @since 2021/6/18 1:49 上午
  */
 class AsmClassTransfer(val source: String) {
 
-    @Synchronized
+    /**
+     * 获取转换后的字节码，优先读取缓存
+     */
+    fun transform(): ByteArray {
+        val inputStream = AsmClassTransfer::class.java.classLoader.getResourceAsStream(source.replace('.', '/') + ".class") ?: throw ClassNotFoundException(source)
+        val bytes = inputStream.use { it.readBytes() }
+        val cacheFile = File(cacheFolder, "$source-${digest(bytes)}.class")
+        if (cacheFile.exists()) {
+            try {
+                return cacheFile.readBytes()
+            } catch (ex: Throwable) {
+                ex.printStackTrace()
+            }
+        }
+        val newBytes = remap(bytes)
+        try {
+            // 写入临时文件后替换，避免读取到不完整的缓存
+            val temp = File(cacheFolder, "${cacheFile.name}.${Thread.currentThread().id}.tmp")
+            temp.writeBytes(newBytes)
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING)
+            // 移除旧版本的缓存
+            cacheFolder.listFiles { file -> file.name.startsWith("$source-") && file.name.endsWith(".class") && file.name != cacheFile.name }?.forEach { it.delete() }
+        } catch (ex: Throwable) {
+            ex.printStackTrace()
+        }
+        return newBytes
+    }
+
     fun createNewClass(): Class<*> {
-        val inputStream = AsmClassTransfer::class.java.classLoader.getResourceAsStream(source.replace('.', '/') + ".class")
-        val classReader = ClassReader(inputStream)
+        return AsmClassLoader.createNewClass(source, transform())
+    }
+
+    private fun remap(bytes: ByteArray): ByteArray {
+        // 映射文件只加载一次
+        synchronized(AsmClassTransfer) { MinecraftVersion.mapping }
+        val classReader = ClassReader(bytes)
         val classWriter = ClassWriter(ClassWriter.COMPUTE_MAXS)
         val classVisitor: ClassVisitor = ClassRemapper(classWriter, MinecraftRemapper())
         classReader.accept(classVisitor, 0)
-        return AsmClassLoader.createNewClass(source, classWriter.toByteArray())
+        return classWriter.toByteArray()
+    }
+
+    companion object {
+
+        /** 缓存格式版本，转换逻辑改变时需要修改 */
+        const val CACHE_VERSION = 1
+
+        val cacheFolder by unsafeLazy {
+            File("cache/taboolib/${PrimitiveLoader.PROJECT_PACKAGE_NAME}/remap").also { it.mkdirs() }
+        }
+
+        /**
+         * 影响转换结果的运行环境：服务端版本与映射文件签名
+         */
+        val environment by unsafeLazy {
+            val mappingFile = if (MinecraftVersion.isUniversal) MappingFile.files[MinecraftVersion.runningVersion] else MappingFile.files["1.17"]
+            "$CACHE_VERSION:${MinecraftVersion.runningVersion}:${MinecraftVersion.minecraftVersion}:${mappingFile?.combined}:${mappingFile?.fields}"
+        }
+
+        /**
+         * 并行转换多个类，并按顺序定义
+         */
+        fun createNewClasses(sources: List<String>): List<Class<*>> {
+            val bytes = sources.parallelStream().map { AsmClassTransfer(it).transform() }.collect(Collectors.toList())
+            return sources.indices.map { AsmClassLoader.createNewClass(sources[it], bytes[it]) }
+        }
+
+        private fun digest(bytes: ByteArray): String {
+            val digest = MessageDigest.getInstance("sha-1")
+            digest.update(bytes)
+            digest.update(environment.toByteArray(StandardCharsets.UTF_8))
+            return BigInteger(1, digest.digest()).toString(16)
+        }
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,11 @@ import org.bukkit.entity.Player
 class ChannelHandler(val player: Player) : ChannelDuplexHandler() {
 
     override fun write(channelHandlerContext: ChannelHandlerContext, packet: Any, channelPromise: ChannelPromise) {
+        // 不关心的数据包直接放行，不创建事件
+        if (!PacketFilter.isDispatched(packet)) {
+            super.write(channelHandlerContext, packet, channelPromise)
+            return
+        }
         val event = PacketSendEvent(player, PacketImpl(packet))
         if (event.callIf()) {
             super.write(channelHandlerContext, event.packet.source, channelPromise)
@@ -24,6 +29,10 @@ class ChannelHandler(val player: Player) : ChannelDuplexHandler() {
     }
 
     override fun channelRead(channelHandlerContext: ChannelHandlerContext, packet: Any) {
+        if (!PacketFilter.isDispatched(packet)) {
+            super.channelRead(channelHandlerContext, packet)
+            return
+        }
         val event = PacketReceiveEvent(player, PacketImpl(packet))
         if (event.callIf()) {
             super.channelRead(channelHandlerContext, event.packet.source)
@@ -1,8 +1,14 @@
 package taboolib.module.nms
 
 import taboolib.common.util.join
-import java.io.InputStream
+import java.io.*
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
 import java.nio.charset.StandardCharsets
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
 import java.util.*
 
 /**
@@ -12,13 +18,22 @@ import java.util.*
  * @author sky
  * @since 2021/6/17 10:59 下午
  */
-class Mapping(inputStreamCombined: InputStream, inputStreamFields: InputStream) {
+class Mapping private constructor() {
 
     val classMap = LinkedHashMap<String, String>()
     val fields = LinkedList<Field>()
     val methods = LinkedList<Method>() // 1.18 only
 
-    init {
+    /** 所有映射后的类名（[classMap] 的值），用于反向查找 */
+    val classNames = HashSet<String>()
+
+    /** 字段索引：类名 -> 混淆名 -> 字段 */
+    private val fieldIndex = HashMap<String, HashMap<String, Field>>()
+
+    /** 方法索引：类名 -> 混淆名 -> 方法（重载） */
+    private val methodIndex = HashMap<String, HashMap<String, MutableList<Method>>>()
+
+    constructor(inputStreamCombined: InputStream, inputStreamFields: InputStream) : this() {
         // 解析类名映射
         inputStreamCombined.use {
             it.readBytes().toString(StandardCharsets.UTF_8).lines().forEach { line ->
@@ -51,6 +66,84 @@ class Mapping(inputStreamCombined: InputStream, inputStreamFields: InputStream)
                 }
             }
         }
+        buildIndex()
+    }
+
+    private fun buildIndex() {
+        classNames.addAll(classMap.values)
+        fields.forEach { fieldIndex.getOrPut(it.path) { HashMap() }.putIfAbsent(it.translateName, it) }
+        methods.forEach { methodIndex.getOrPut(it.path) { HashMap() }.getOrPut(it.translateName) { ArrayList(1) } += it }
+    }
+
+    /**
+     * 获取字段映射
+     *
+     * @param path 类名（以 . 分隔）
+     * @param translateName 混淆名
+     */
+    fun getField(path: String, translateName: String): Field? {
+        return fieldIndex[path]?.get(translateName)
+    }
+
+    /**
+     * 获取同名的所有方法映射（重载）
+     *
+     * @param path 类名（以 . 分隔）
+     * @param translateName 混淆名
+     */
+    fun getMethods(path: String, translateName: String): List<Method> {
+        return methodIndex[path]?.get(translateName) ?: emptyList()
+    }
+
+    /**
+     * 获取方法映射
+     *
+     * @param path 类名（以 . 分隔）
+     * @param translateName 混淆名
+     * @param descriptor 参数描述符
+     */
+    fun getMethod(path: String, translateName: String, descriptor: String): Method? {
+        return getMethods(path, translateName).firstOrNull { it.descriptor == descriptor }
+    }
+
+    /**
+     * 写入二进制缓存文件
+     *
+     * 格式：魔数、版本号、字符串池（所有字符串只写入一次），之后的类名映射、字段与方法均为字符串池的下标
+     */
+    fun save(file: File) {
+        val pool = LinkedHashMap<String, Int>()
+        fun index(str: String) = pool.getOrPut(str) { pool.size }
+        val classTable = classMap.entries.map { intArrayOf(index(it.key), index(it.value)) }
+        val fieldTable = fields.map { intArrayOf(index(it.path), index(it.mojangName), index(it.translateName)) }
+        val methodTable = methods.map { intArrayOf(index(it.path), index(it.mojangName), index(it.translateName), index(it.descriptor)) }
+        val dir = file.absoluteFile.parentFile
+        dir.mkdirs()
+        // 在同一目录下写入临时文件后原子替换，避免其他进程读取到不完整的缓存或同时写入同一个临时文件
+        val temp = Files.createTempFile(dir.toPath(), file.name, ".tmp")
+        try {
+            DataOutputStream(BufferedOutputStream(Files.newOutputStream(temp))).use { out ->
+                out.writeInt(MAGIC)
+                out.writeInt(VERSION)
+                out.writeInt(pool.size)
+                pool.keys.forEach {
+                    val bytes = it.toByteArray(StandardCharsets.UTF_8)
+                    out.writeInt(bytes.size)
+                    out.write(bytes)
+                }
+                listOf(classTable, fieldTable, methodTable).forEach { table ->
+                    out.writeInt(table.size)
+                    table.forEach { row -> row.forEach { out.writeInt(it) } }
+                }
+            }
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+            } catch (ex: AtomicMoveNotSupportedException) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+            }
+        } finally {
+            Files.deleteIfExists(temp)
+        }
     }
 
     /**
@@ -58,7 +151,8 @@ class Mapping(inputStreamCombined: InputStream, inputStreamFields: InputStream)
      */
     data class Field(val path: String, val mojangName: String, val translateName: String) {
 
-        val className = path.substringAfterLast('.', "")
+        val className: String
+            get() = path.substringAfterLast('.', "")
     }
 
     /**
@@ -66,6 +160,68 @@ class Mapping(inputStreamCombined: InputStream, inputStreamFields: InputStream)
      */
     data class Method(val path: String, val mojangName: String, val translateName: String, val descriptor: String) {
 
-        val className = path.substringAfterLast('.', "")
+        val className: String
+            get() = path.substringAfterLast('.', "")
+    }
+
+    companion object {
+
+        const val MAGIC = 0x54424D50 // TBMP
+        const val VERSION = 1
+
+        /**
+         * 读取映射文件，优先使用二进制缓存
+         * 缓存不存在或无法读取时解析 CSRG 文件并写入缓存
+         *
+         * @param combined 类名映射文件
+         * @param fields 字段与方法映射文件
+         * @param cache 缓存文件
+         */
+        fun load(combined: File, fields: File, cache: File): Mapping {
+            if (cache.exists()) {
+                try {
+                    return read(cache)
+                } catch (ex: Exception) {
+                    cache.delete()
+                }
+            }
+            val mapping = Mapping(FileInputStream(combined), FileInputStream(fields))
+            try {
+                mapping.save(cache)
+            } catch (ex: IOException) {
+                ex.printStackTrace()
+            }
+            return mapping
+        }
+
+        /**
+         * 读取二进制缓存文件（通过内存映射读取）
+         * 相同的字符串在字符串池中只有一个实例，由 [fields]、[methods] 与索引共享
+         */
+        fun read(file: File): Mapping {
+            val buffer = FileChannel.open(file.toPath(), StandardOpenOption.READ).use { it.map(FileChannel.MapMode.READ_ONLY, 0, it.size()) }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw IOException("Invalid mapping cache: $file")
+            }
+            val pool = Array(buffer.getInt()) { readString(buffer) }
+            val mapping = Mapping()
+            repeat(buffer.getInt()) {
+                mapping.classMap[pool[buffer.getInt()]] = pool[buffer.getInt()]
+            }
+            repeat(buffer.getInt()) {
+                mapping.fields += Field(pool[buffer.getInt()], pool[buffer.getInt()], pool[buffer.getInt()])
+            }
+            repeat(buffer.getInt()) {
+                mapping.methods += Method(pool[buffer.getInt()], pool[buffer.getInt()], pool[buffer.getInt()], pool[buffer.getInt()])
+            }
+            mapping.buildIndex()
+            return mapping
+        }
+
+        private fun readString(buffer: ByteBuffer): String {
+            val bytes = ByteArray(buffer.getInt())
+            buffer.get(bytes)
+            return String(bytes, StandardCharsets.UTF_8)
+        }
     }
 }
\ No newline at end of file
@@ -35,7 +35,7 @@ open class MinecraftRemapper : Remapper() {
     override fun mapFieldName(owner: String, name: String, descriptor: String): String {
         if (MinecraftVersion.isUniversal) {
             val universal = translate(owner).replace('/', '.')
-            return mapping.fields.firstOrNull { it.path == universal && it.translateName == name }?.mojangName ?: name
+            return mapping.getField(universal, name)?.mojangName ?: name
         }
         return name
     }
@@ -51,7 +51,7 @@ open class MinecraftRemapper : Remapper() {
             SignatureReader(descriptor).accept(signatureWriter)
             val desc = signatureWriter.toString()
             val universal = translate(owner).replace('/', '.')
-            return mapping.methods.firstOrNull { it.path == universal && it.translateName == name && it.descriptor == desc }?.mojangName ?: name
+            return mapping.getMethod(universal, name, desc)?.mojangName ?: name
         }
         return name
     }
@@ -84,7 +84,7 @@ open class MinecraftRemapper : Remapper() {
         } else {
             // 将高版本包名替换为低版本包名
             // net/minecraft/server/level/EntityPlayer -> net/minecraft/server/v1_17_R1/EntityPlayer
-            if (mapping.classMap.containsValue(key.replace('.', '/'))) {
+            if (key.replace('.', '/') in mapping.classNames) {
                 "net/minecraft/server/${MinecraftVersion.minecraftVersion}/${key.substringAfterLast('/', "")}"
             } else {
                 key.replace(nms1, nms2)
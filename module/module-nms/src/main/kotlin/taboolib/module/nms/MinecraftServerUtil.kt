@@ -13,11 +13,18 @@ import taboolib.common.platform.event.SubscribeEvent
 import taboolib.common.util.unsafeLazy
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
+import java.util.concurrent.FutureTask
 
 private val nmsProxyClassMap = ConcurrentHashMap<String, Class<*>>()
 
+private val nmsProxyClassTasks = ConcurrentHashMap<String, FutureTask<Class<*>>>()
+
+/** 当前线程正在生成的代理类 */
+private val nmsProxyClassBuilding = ThreadLocal.withInitial { HashSet<String>() }
+
 private val nmsProxyInstanceMap = ConcurrentHashMap<String, Any>()
 
 private val packetPool = ConcurrentHashMap<String, ExecutorService>()
@@ -81,21 +88,40 @@ inline fun <reified T> nmsProxy(bind: String = "{name}Impl", vararg parameter: A
 }
 
 @Suppress("UNCHECKED_CAST")
-@Synchronized
 fun <T> nmsProxyClass(clazz: Class<T>, bind: String = "{name}Impl"): Class<T> {
     val key = "${clazz.name}:$bind"
     // 从缓存中获取
-    if (nmsProxyClassMap.containsKey(key)) {
-        return nmsProxyClassMap[key] as Class<T>
+    nmsProxyClassMap[key]?.let { return it as Class<T> }
+    // 同一个代理类只生成一次，其他线程等待生成结果，不同的代理类可以同时生成
+    val task = FutureTask<Class<*>> {
+        val bindClass = bind.replace("{name}", clazz.name)
+        // 同时生成所有的内部类，代理类需要最先定义
+        val innerClasses = runningClassMapWithoutLibrary.keys.filter { name -> name.startsWith("$bindClass\$") }
+        AsmClassTransfer.createNewClasses(listOf(bindClass) + innerClasses)[0]
+    }
+    // 生成完毕的任务会保留在 nmsProxyClassTasks 中，因此同一个代理类不会被重复定义
+    val running = nmsProxyClassTasks.putIfAbsent(key, task) ?: task
+    val building = nmsProxyClassBuilding.get()
+    if (running === task) {
+        building += key
+        try {
+            task.run()
+        } finally {
+            building -= key
+        }
+    } else if (key in building) {
+        // 生成过程中再次获取同一个代理类，等待自己的任务会永远阻塞
+        throw IllegalStateException("Recursive generation of proxy class $key")
+    }
+    try {
+        val proxyClass = running.get()
+        nmsProxyClassMap[key] = proxyClass
+        return proxyClass as Class<T>
+    } catch (ex: ExecutionException) {
+        // 只移除失败的任务，以便重新生成
+        nmsProxyClassTasks.remove(key, running)
+        throw ex.cause ?: ex
     }
-    // 生成代理类
-    val bindClass = bind.replace("{name}", clazz.name)
-    val newClass = AsmClassTransfer(bindClass).createNewClass()
-    // 同时生成所有的内部类
-    runningClassMapWithoutLibrary.filter { (name, _) -> name.startsWith("$bindClass\$") }.forEach { (name, _) -> AsmClassTransfer(name).createNewClass() }
-    // 缓存代理类
-    nmsProxyClassMap[key] = newClass
-    return newClass as Class<T>
 }
 
 inline fun <reified T> nmsProxyClass(bind: String = "{name}Impl"): Class<T> {
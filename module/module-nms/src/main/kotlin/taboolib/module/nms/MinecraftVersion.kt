@@ -12,7 +12,7 @@ import taboolib.common.platform.PlatformSide
 import taboolib.common.platform.function.disablePlugin
 import taboolib.common.platform.function.runningPlatform
 import taboolib.common.util.unsafeLazy
-import java.io.FileInputStream
+import java.io.File
 
 @Inject
 @PlatformSide(Platform.BUKKIT)
@@ -141,9 +141,11 @@ object MinecraftVersion {
             disablePlugin()
             throw UnsupportedVersionException()
         }
-        Mapping(
-            FileInputStream("assets/${mappingFile.combined.substring(0, 2)}/${mappingFile.combined}"),
-            FileInputStream("assets/${mappingFile.fields.substring(0, 2)}/${mappingFile.fields}"),
+        // 解析结果缓存在映射文件旁，以两个映射文件的签名命名
+        Mapping.load(
+            File("assets/${mappingFile.combined.substring(0, 2)}/${mappingFile.combined}"),
+            File("assets/${mappingFile.fields.substring(0, 2)}/${mappingFile.fields}"),
+            File("assets/${mappingFile.combined.substring(0, 2)}/${mappingFile.combined}-${mappingFile.fields}.mapping"),
         )
     }
 
@@ -24,6 +24,16 @@ abstract class Packet {
     /** 写入字段 */
     abstract fun write(name: String, value: Any?)
 
+    /** 通过预先解析的 [PacketField] 读取字段 */
+    fun <T> read(field: PacketField<T>): T {
+        return field[source]
+    }
+
+    /** 通过预先解析的 [PacketField] 写入字段 */
+    fun <T> write(field: PacketField<T>, value: T) {
+        field[source] = value
+    }
+
     /** 覆盖原始数据包 */
     abstract fun overwrite(newPacket: Any)
 }
\ No newline at end of file
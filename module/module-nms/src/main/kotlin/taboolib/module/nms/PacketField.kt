@@ -0,0 +1,167 @@
+package taboolib.module.nms
+
+import org.tabooproject.reflex.UnsafeAccess
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Field
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * TabooLib
+ * taboolib.module.nms.PacketField
+ *
+ * 预先解析的数据包字段
+ *
+ * [Packet.read] 与 [Packet.write] 每次调用都需要按名称查找（并转换）字段，
+ * 而 [PacketField] 只在创建时查找一次，之后通过 [MethodHandle] 直接读写，基本类型的字段可以通过 [getInt] 等方法读写而不需要装箱。
+ *
+ * ```
+ * val x = PacketField.of<Double>("PacketPlayInFlying", "x")
+ *
+ * @SubscribeEvent
+ * fun onReceive(e: PacketReceiveEvent) {
+ *     if (x.isInstance(e.packet)) {
+ *         val value = x.getDouble(e.packet.source)
+ *     }
+ * }
+ * ```
+ *
+ * final 字段与 record 字段无法通过 [MethodHandle] 写入，此时写入操作会退回到 [UnsafeAccess.put]（与 [Packet.write] 相同）。
+ */
+class PacketField<T> private constructor(val packetClass: Class<*>, val field: Field) {
+
+    /** 字段名称（转换后） */
+    val name: String
+        get() = field.name
+
+    /** 字段类型 */
+    val type: Class<*>
+        get() = field.type
+
+    private val getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Any::class.java, Any::class.java))
+
+    private val rawSetter = runCatching { lookup.unreflectSetter(field) }.getOrNull()
+    private val setter = rawSetter?.asType(MethodType.methodType(Any::class.java, Any::class.java, Any::class.java))
+
+    /** 字段是否可以通过 [MethodHandle] 写入，否则通过 [UnsafeAccess] 写入 */
+    val isWritable: Boolean
+        get() = rawSetter != null
+
+    private val intGetter by lazy { primitiveGetter(Int::class.javaPrimitiveType!!) }
+    private val longGetter by lazy { primitiveGetter(Long::class.javaPrimitiveType!!) }
+    private val floatGetter by lazy { primitiveGetter(Float::class.javaPrimitiveType!!) }
+    private val doubleGetter by lazy { primitiveGetter(Double::class.javaPrimitiveType!!) }
+    private val booleanGetter by lazy { primitiveGetter(Boolean::class.javaPrimitiveType!!) }
+    private val intSetter by lazy { primitiveSetter(Int::class.javaPrimitiveType!!) }
+    private val longSetter by lazy { primitiveSetter(Long::class.javaPrimitiveType!!) }
+    private val floatSetter by lazy { primitiveSetter(Float::class.javaPrimitiveType!!) }
+    private val doubleSetter by lazy { primitiveSetter(Double::class.javaPrimitiveType!!) }
+    private val booleanSetter by lazy { primitiveSetter(Boolean::class.javaPrimitiveType!!) }
+
+    /** 数据包是否包含该字段 */
+    fun isInstance(packet: Packet): Boolean {
+        return packetClass.isInstance(packet.source)
+    }
+
+    /** 读取字段 */
+    @Suppress("UNCHECKED_CAST")
+    operator fun get(source: Any): T {
+        return getter.invokeExact(source) as T
+    }
+
+    /** 写入字段 */
+    operator fun set(source: Any, value: T) {
+        if (setter != null) {
+            setter.invokeExact(source, value as Any?)
+        } else {
+            UnsafeAccess.put(source, field, value)
+        }
+    }
+
+    fun getInt(source: Any): Int = intGetter.invokeExact(source) as Int
+
+    fun getLong(source: Any): Long = longGetter.invokeExact(source) as Long
+
+    fun getFloat(source: Any): Float = floatGetter.invokeExact(source) as Float
+
+    fun getDouble(source: Any): Double = doubleGetter.invokeExact(source) as Double
+
+    fun getBoolean(source: Any): Boolean = booleanGetter.invokeExact(source) as Boolean
+
+    fun setInt(source: Any, value: Int) {
+        if (isWritable) intSetter.invokeExact(source, value) else UnsafeAccess.put(source, field, value)
+    }
+
+    fun setLong(source: Any, value: Long) {
+        if (isWritable) longSetter.invokeExact(source, value) else UnsafeAccess.put(source, field, value)
+    }
+
+    fun setFloat(source: Any, value: Float) {
+        if (isWritable) floatSetter.invokeExact(source, value) else UnsafeAccess.put(source, field, value)
+    }
+
+    fun setDouble(source: Any, value: Double) {
+        if (isWritable) doubleSetter.invokeExact(source, value) else UnsafeAccess.put(source, field, value)
+    }
+
+    fun setBoolean(source: Any, value: Boolean) {
+        if (isWritable) booleanSetter.invokeExact(source, value) else UnsafeAccess.put(source, field, value)
+    }
+
+    private fun primitiveGetter(type: Class<*>): MethodHandle {
+        return lookup.unreflectGetter(field).asType(MethodType.methodType(type, Any::class.java))
+    }
+
+    private fun primitiveSetter(type: Class<*>): MethodHandle {
+        return rawSetter!!.asType(MethodType.methodType(Any::class.java, Any::class.java, type))
+    }
+
+    override fun toString(): String {
+        return "PacketField(${packetClass.name}#${field.name})"
+    }
+
+    companion object {
+
+        private val lookup = MethodHandles.lookup()
+        private val cache = ConcurrentHashMap<String, PacketField<*>>()
+
+        /**
+         * 获取数据包字段
+         *
+         * @param packetClass 数据包类
+         * @param name 字段名称
+         * @param remap 是否转换字段名称（与 [Packet.read] 相同）
+         */
+        @Suppress("UNCHECKED_CAST")
+        fun <T> of(packetClass: Class<*>, name: String, remap: Boolean = true): PacketField<T> {
+            return cache.computeIfAbsent("${packetClass.name}#$name#$remap") { PacketField<T>(packetClass, findField(packetClass, name, remap)) } as PacketField<T>
+        }
+
+        /**
+         * 获取数据包字段
+         *
+         * @param packetName 数据包名称（如 PacketPlayInFlying），通过 [nmsClass] 获取
+         * @param name 字段名称
+         * @param remap 是否转换字段名称
+         */
+        fun <T> of(packetName: String, name: String, remap: Boolean = true): PacketField<T> {
+            return of(nmsClass(packetName), name, remap)
+        }
+
+        private fun findField(packetClass: Class<*>, name: String, remap: Boolean): Field {
+            var clazz: Class<*>? = packetClass
+            while (clazz != null && clazz != Any::class.java) {
+                val fieldName = if (remap) RefRemapper.field(clazz.name, name) else name
+                val field = clazz.declaredFields.firstOrNull { it.name == fieldName && !Modifier.isStatic(it.modifiers) }
+                if (field != null) {
+                    field.isAccessible = true
+                    return field
+                }
+                clazz = clazz.superclass
+            }
+            throw NoSuchFieldException("${packetClass.name}#$name")
+        }
+    }
+}
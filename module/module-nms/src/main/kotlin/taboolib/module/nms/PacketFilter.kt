@@ -0,0 +1,148 @@
+package taboolib.module.nms
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * TabooLib
+ * taboolib.module.nms.PacketFilter
+ *
+ * 数据包过滤器
+ *
+ * 默认所有数据包都会触发 [PacketSendEvent] 与 [PacketReceiveEvent]。
+ * 通过 [listen] 声明关心的数据包类型后，[ChannelHandler] 只为这些类型（及其子类）创建事件，其他数据包直接放行。
+ * 每个数据包只需要按类查找一次（结果按类缓存），同时统计每种数据包的数量与触发事件的数量。
+ *
+ * ```
+ * PacketFilter.listen("PacketPlayInFlying", "PacketPlayOutEntityMetadata")
+ * ```
+ *
+ * 过滤器对当前插件的所有数据包监听器生效，因此需要包含所有监听器关心的类型。
+ * TabooLib 自身的模块通过 [require] 声明依赖的数据包类型，这些类型始终触发事件，但不会开启过滤。
+ */
+object PacketFilter {
+
+    private val classes = ConcurrentHashMap.newKeySet<Class<*>>()
+    private val names = ConcurrentHashMap.newKeySet<String>()
+    private val required = ConcurrentHashMap.newKeySet<String>()
+    private val entries = ConcurrentHashMap<Class<*>, Entry>()
+
+    /** 是否启用过滤（声明过关心的数据包类型） */
+    @Volatile
+    var isEnabled = false
+        private set
+
+    /**
+     * 声明关心的数据包类型
+     */
+    fun listen(vararg packetClass: Class<*>) {
+        classes.addAll(packetClass)
+        update()
+    }
+
+    /**
+     * 声明关心的数据包名称（简单名称或完整名称）
+     */
+    fun listen(vararg packetName: String) {
+        names.addAll(packetName)
+        update()
+    }
+
+    /**
+     * 移除关心的数据包类型
+     */
+    fun unlisten(vararg packetClass: Class<*>) {
+        classes.removeAll(packetClass.toSet())
+        update()
+    }
+
+    /**
+     * 移除关心的数据包名称
+     */
+    fun unlisten(vararg packetName: String) {
+        names.removeAll(packetName.toSet())
+        update()
+    }
+
+    /**
+     * 声明模块依赖的数据包名称（简单名称或完整名称）
+     * 与 [listen] 不同，这些类型不会开启过滤，开启过滤后也始终触发事件
+     */
+    fun require(vararg packetName: String) {
+        required.addAll(packetName)
+        update()
+    }
+
+    /**
+     * 移除所有声明，恢复为所有数据包都触发事件（不影响 [require] 声明的类型）
+     */
+    fun reset() {
+        classes.clear()
+        names.clear()
+        update()
+    }
+
+    /**
+     * 是否需要为该数据包触发事件，同时记录统计信息
+     */
+    fun isDispatched(packet: Any): Boolean {
+        val entry = entries[packet.javaClass] ?: createEntry(packet.javaClass)
+        entry.seen.increment()
+        if (!isEnabled || entry.interested) {
+            entry.dispatched.increment()
+            return true
+        }
+        return false
+    }
+
+    /**
+     * 获取每种数据包的统计信息
+     */
+    fun stats(): List<Stats> {
+        return entries.values.map { Stats(it.packetClass.name, it.seen.sum(), it.dispatched.sum()) }.sortedByDescending { it.seen }
+    }
+
+    /**
+     * 清空统计信息
+     */
+    fun resetStats() {
+        entries.values.forEach {
+            it.seen.reset()
+            it.dispatched.reset()
+        }
+    }
+
+    /**
+     * 与 [update] 持有同一把锁，保证新建的缓存不会错过并发的声明修改
+     */
+    @Synchronized
+    private fun createEntry(packetClass: Class<*>): Entry {
+        return entries.getOrPut(packetClass) { Entry(packetClass, isInterested(packetClass)) }
+    }
+
+    @Synchronized
+    private fun update() {
+        isEnabled = classes.isNotEmpty() || names.isNotEmpty()
+        entries.values.forEach { it.interested = isInterested(it.packetClass) }
+    }
+
+    private fun isInterested(packetClass: Class<*>): Boolean {
+        val name = packetClass.name
+        val simpleName = packetClass.simpleName
+        return name in names || simpleName in names || name in required || simpleName in required || classes.any { it.isAssignableFrom(packetClass) }
+    }
+
+    private class Entry(val packetClass: Class<*>, @Volatile var interested: Boolean) {
+
+        val seen = LongAdder()
+        val dispatched = LongAdder()
+    }
+
+    /** 数据包统计信息 */
+    class Stats(val name: String, val seen: Long, val dispatched: Long) {
+
+        override fun toString(): String {
+            return "$name: seen=$seen, dispatched=$dispatched"
+        }
+    }
+}
@@ -12,11 +12,22 @@ import org.tabooproject.reflex.Reflex.Companion.setProperty
  */
 class PacketImpl(override var source: Any) : Packet() {
 
-    /** 数据包名称 */
-    override var name = source.javaClass.simpleName.toString()
+    private var nameCache: String? = null
+    private var fullyNameCache: String? = null
 
-    /** 数据包完整名称 */
-    override var fullyName = source.javaClass.name.toString()
+    /** 数据包名称（首次访问时获取） */
+    override var name: String
+        get() = nameCache ?: source.javaClass.simpleName.also { nameCache = it }
+        set(value) {
+            nameCache = value
+        }
+
+    /** 数据包完整名称（首次访问时获取） */
+    override var fullyName: String
+        get() = fullyNameCache ?: source.javaClass.name.also { fullyNameCache = it }
+        set(value) {
+            fullyNameCache = value
+        }
 
     /** 读取字段 */
     override fun <T> read(name: String, remap: Boolean): T? {
@@ -31,7 +42,7 @@ class PacketImpl(override var source: Any) : Packet() {
     /** 覆盖原始数据包 */
     override fun overwrite(newPacket: Any) {
         source = newPacket
-        name = newPacket.javaClass.simpleName.toString()
-        fullyName = newPacket.javaClass.name.toString()
+        nameCache = null
+        fullyNameCache = null
     }
 }
\ No newline at end of file
@@ -31,7 +31,7 @@ object RefRemapper : ReflexRemapper {
             return if (fieldRemapCacheMap.containsKey(namespace)) {
                 fieldRemapCacheMap[namespace]!!
             } else {
-                val value = mapping.fields.firstOrNull { it.path == name && it.translateName == field }?.mojangName
+                val value = mapping.getField(name, field)?.mojangName
                 if (value != null) {
                     fieldRemapCacheMap[namespace] = value
                 }
@@ -48,9 +48,9 @@ object RefRemapper : ReflexRemapper {
             return if (methodRemapCacheMap.containsKey(namespace)) {
                 methodRemapCacheMap[namespace]!!
             } else {
-                val value = mapping.methods.firstOrNull {
+                val value = mapping.getMethods(name, method).firstOrNull {
                     // 判断方法描述符获取准确方法
-                    it.path == name && it.translateName == method && checkParameterType(it.descriptor, *parameter)
+                    checkParameterType(it.descriptor, *parameter)
                 }?.mojangName
                 // 写入缓存
                 if (value != null) {
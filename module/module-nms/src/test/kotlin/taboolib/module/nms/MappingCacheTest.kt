@@ -0,0 +1,79 @@
+package taboolib.module.nms
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+
+class MappingCacheTest {
+
+    private val combined = """
+        # 类名映射
+        a net/minecraft/server/level/EntityPlayer
+        b net/minecraft/world/entity/Entity
+        c net/minecraft/network/protocol/game/PacketPlayOutChat
+    """.trimIndent()
+
+    private val fields = """
+        # 字段与方法映射
+        net/minecraft/world/entity/Entity level a
+        net/minecraft/world/entity/Entity position b
+        net/minecraft/server/level/EntityPlayer connection c
+        net/minecraft/world/entity/Entity tick ()V d
+        net/minecraft/world/entity/Entity move (DDD)V e
+        net/minecraft/world/entity/Entity moveTo (DDDFF)V e
+        net/minecraft/server/level/EntityPlayer send (Lnet/minecraft/network/protocol/Packet;)V a
+    """.trimIndent()
+
+    private fun parse(): Mapping {
+        return Mapping(combined.byteInputStream(), fields.byteInputStream())
+    }
+
+    @Test
+    fun saveAndReadRoundTrip(@TempDir dir: File) {
+        val mapping = parse()
+        val cache = File(dir, "mapping.bin")
+        mapping.save(cache)
+        val read = Mapping.read(cache)
+        assertEquals(mapping.classMap, read.classMap)
+        assertEquals(mapping.classMap.keys.toList(), read.classMap.keys.toList())
+        assertEquals(mapping.fields, read.fields)
+        assertEquals(mapping.methods, read.methods)
+        assertEquals(mapping.classNames, read.classNames)
+    }
+
+    @Test
+    fun indexesAreRebuiltAfterRead(@TempDir dir: File) {
+        val cache = File(dir, "mapping.bin")
+        parse().save(cache)
+        val read = Mapping.read(cache)
+        assertEquals("level", read.getField("net.minecraft.world.entity.Entity", "a")?.mojangName)
+        assertEquals("connection", read.getField("net.minecraft.server.level.EntityPlayer", "c")?.mojangName)
+        assertNull(read.getField("net.minecraft.world.entity.Entity", "z"))
+        // 重载的方法
+        assertEquals(listOf("move", "moveTo"), read.getMethods("net.minecraft.world.entity.Entity", "e").map { it.mojangName })
+        assertEquals("moveTo", read.getMethod("net.minecraft.world.entity.Entity", "e", "(DDDFF)V")?.mojangName)
+        assertNull(read.getMethod("net.minecraft.world.entity.Entity", "e", "(I)V"))
+    }
+
+    @Test
+    fun saveReplacesCacheWithoutLeavingTempFiles(@TempDir dir: File) {
+        val cache = File(dir, "mapping.bin")
+        cache.writeText("broken")
+        parse().save(cache)
+        parse().save(cache)
+        assertEquals(listOf("mapping.bin"), dir.list()!!.toList())
+        assertEquals(parse().fields, Mapping.read(cache).fields)
+    }
+
+    @Test
+    fun loadFallsBackToSourceWhenCacheIsInvalid(@TempDir dir: File) {
+        val combinedFile = File(dir, "combined.csrg").also { it.writeText(combined) }
+        val fieldsFile = File(dir, "fields.csrg").also { it.writeText(fields) }
+        val cache = File(dir, "mapping.bin").also { it.writeText("broken") }
+        val mapping = Mapping.load(combinedFile, fieldsFile, cache)
+        assertEquals(parse().methods, mapping.methods)
+        // 缓存已被重新写入
+        assertEquals(parse().methods, Mapping.read(cache).methods)
+    }
+}
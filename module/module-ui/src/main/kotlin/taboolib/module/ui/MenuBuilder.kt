@@ -6,6 +6,7 @@ import org.bukkit.event.inventory.InventoryClickEvent
 import org.bukkit.inventory.Inventory
 import org.bukkit.inventory.ItemStack
 import taboolib.common.platform.function.registerBukkitListener
+import taboolib.module.nms.PacketFilter
 import taboolib.module.nms.PacketSendEvent
 import taboolib.module.ui.virtual.InventoryHandler
 import taboolib.module.ui.virtual.VirtualInventory
@@ -27,6 +28,7 @@ var isRawTitleInVanillaInventoryEnabled = false
  */
 fun enableRawTitleInVanillaInventory() {
     isRawTitleInVanillaInventoryEnabled = true
+    PacketFilter.require("PacketPlayOutOpenWindow")
     registerBukkitListener(PacketSendEvent::class.java) { e ->
         if (e.packet.name == "PacketPlayOutOpenWindow") {
             // 全版本都是 c，不错
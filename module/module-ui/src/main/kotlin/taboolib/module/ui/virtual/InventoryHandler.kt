@@ -13,6 +13,7 @@ import taboolib.common.platform.PlatformSide
 import taboolib.common.platform.event.SubscribeEvent
 import taboolib.common.util.unsafeLazy
 import taboolib.module.nms.MinecraftVersion
+import taboolib.module.nms.PacketFilter
 import taboolib.module.nms.PacketReceiveEvent
 import taboolib.module.nms.nmsProxy
 import java.util.concurrent.ConcurrentHashMap
@@ -42,6 +43,10 @@ abstract class InventoryHandler {
 
         val playerRemoteInventoryMap = ConcurrentHashMap<String, RemoteInventory>()
 
+        init {
+            PacketFilter.require("PacketPlayInCloseWindow", "PacketPlayInWindowClick")
+        }
+
         fun getContainerCounter(player: Player, updateId: Boolean = true): Int {
             val id = playerContainerCounterMap.computeIfAbsent(player.name) { 0 }
             return if (updateId) {